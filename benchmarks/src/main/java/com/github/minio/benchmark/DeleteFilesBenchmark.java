@@ -0,0 +1,69 @@
+package com.github.minio.benchmark;
+
+import com.github.minio.MinIOProperties;
+import com.github.minio.MinIOTemplate;
+import com.github.minio.schema.MinIODeleteReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DeleteFilesBenchmark
+ *
+ * Measure the batch delete of the given number of files,the concurrency is the number of delete requests
+ * sent concurrently,deleting is idempotent so the same names are deleted in every invocation
+ *
+ * @author echils
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeleteFilesBenchmark {
+
+    private static final String BUCKET = "delete";
+
+    @Param({"100", "5000"})
+    public int objectCount;
+
+    @Param({"1", "4"})
+    public int concurrency;
+
+    private MinIOTemplate template;
+
+    private List<String> filenames;
+
+    @Setup(Level.Trial)
+    public void setup(S3StubState stubState) {
+        stubState.stub().putObjects(BUCKET, "files/", objectCount, 1024);
+        MinIOProperties minIOProperties = new MinIOProperties();
+        minIOProperties.setDeleteParallelism(concurrency);
+        template = stubState.template(minIOProperties);
+        filenames = new ArrayList<>(objectCount);
+        for (int i = 0; i < objectCount; i++) {
+            filenames.add(String.format("files/%08d.dat", i));
+        }
+    }
+
+
+    @Benchmark
+    public MinIODeleteReport deleteFiles(RoundTripCounter counter) {
+        return template.deleteFiles(BUCKET, filenames);
+    }
+
+}
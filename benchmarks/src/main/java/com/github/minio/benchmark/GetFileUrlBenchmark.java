@@ -0,0 +1,57 @@
+package com.github.minio.benchmark;
+
+import com.github.minio.MinIOProperties;
+import com.github.minio.MinIOTemplate;
+import com.github.minio.schema.MinIOPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GetFileUrlBenchmark
+ *
+ * Measure the url of file of a shared or a private bucket
+ *
+ * @author echils
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GetFileUrlBenchmark {
+
+    private static final String BUCKET = "url";
+
+    @Param({"true", "false"})
+    public boolean shared;
+
+    private MinIOTemplate template;
+
+    @Setup(Level.Trial)
+    public void setup(S3StubState stubState) {
+        stubState.stub().createBucket(BUCKET, shared ? new MinIOPolicy(BUCKET, MinIOPolicy.Policy.READ_AND_WRITE).apply() : null);
+        stubState.stub().putObjects(BUCKET, "files/", 1, 1024);
+        template = stubState.template(new MinIOProperties());
+    }
+
+
+    @Benchmark
+    public URI getFileUrl(RoundTripCounter counter) {
+        return template.getFileUrl(BUCKET, "files/00000000.dat");
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.github.minio.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * RoundTripCounter
+ *
+ * Report the http requests received by the stub as a secondary result,in throughput mode it is shown as
+ * round trips per second so dividing it by the ops per second gives the round trips per operation
+ *
+ * @author echils
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class RoundTripCounter {
+
+    public long roundTrips;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        roundTrips = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void collect(S3StubState stubState) {
+        roundTrips = stubState.claimIterationRequests();
+    }
+
+}
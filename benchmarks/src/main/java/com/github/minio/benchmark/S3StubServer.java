@@ -0,0 +1,353 @@
+package com.github.minio.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * S3StubServer
+ *
+ * An in-process S3 compatible http stub which answers the requests used by the template from memory,
+ * the content of object is measured but not kept so the stub adds little allocation of its own,
+ * every request is counted as one round trip
+ *
+ * @author echils
+ */
+public class S3StubServer {
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+
+    private static final String S3_NAMESPACE = " xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\"";
+
+    private static final Pattern DELETE_KEY = Pattern.compile("<Key>(.*?)</Key>");
+
+    private static final ThreadLocal<byte[]> SKIP_BUFFER = ThreadLocal.withInitial(() -> new byte[64 * 1024]);
+
+    private static final String LAST_MODIFIED = ZonedDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC)
+            .format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'"));
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private final Map<String, NavigableMap<String, Long>> buckets = new ConcurrentHashMap<>();
+
+    private final Map<String, String> policies = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicLong> uploads = new ConcurrentHashMap<>();
+
+    static {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    public S3StubServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.executor = Executors.newFixedThreadPool(64, runnable -> {
+            Thread thread = new Thread(runnable, "s3-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+
+    public void start() {
+        server.start();
+    }
+
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+
+    /**
+     * The endpoint of stub,example http://127.0.0.1:12345
+     */
+    public String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+
+    /**
+     * The number of requests received
+     */
+    public long requestCount() {
+        return requestCount.get();
+    }
+
+
+    /**
+     * Create the bucket directly,no request is counted
+     *
+     * @param bucketName the name of bucket
+     * @param policy     the policy of bucket,null means private
+     */
+    public void createBucket(String bucketName, String policy) {
+        buckets.computeIfAbsent(bucketName, name -> new ConcurrentSkipListMap<>());
+        if (policy != null) {
+            policies.put(bucketName, policy);
+        }
+    }
+
+
+    /**
+     * Put the objects directly,no request is counted
+     *
+     * @param bucketName the name of bucket
+     * @param prefix     the prefix of object name
+     * @param count      the number of objects
+     * @param size       the size of object
+     */
+    public void putObjects(String bucketName, String prefix, int count, long size) {
+        NavigableMap<String, Long> objects = buckets.computeIfAbsent(bucketName, name -> new ConcurrentSkipListMap<>());
+        for (int i = 0; i < count; i++) {
+            objects.put(String.format("%s%08d.dat", prefix, i), size);
+        }
+    }
+
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try {
+            String path = URLDecoder.decode(exchange.getRequestURI().getRawPath(), "utf-8").substring(1);
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            int slash = path.indexOf('/');
+            String bucketName = slash < 0 ? path : path.substring(0, slash);
+            String objectName = slash < 0 ? "" : path.substring(slash + 1);
+            String method = exchange.getRequestMethod();
+            if (objectName.isEmpty()) {
+                handleBucket(exchange, method, bucketName, query);
+            } else {
+                handleObject(exchange, method, bucketName, objectName, query);
+            }
+        } catch (Exception e) {
+            respond(exchange, 500, error("InternalError", e.toString()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+
+    private void handleBucket(HttpExchange exchange, String method, String bucketName,
+                              Map<String, String> query) throws IOException {
+        NavigableMap<String, Long> objects = buckets.get(bucketName);
+        if ("PUT".equals(method) && !query.containsKey("policy")) {
+            skip(exchange);
+            createBucket(bucketName, null);
+            respond(exchange, 200, null);
+            return;
+        }
+        if (objects == null) {
+            respond(exchange, 404, "HEAD".equals(method) ? null : error("NoSuchBucket", bucketName));
+            return;
+        }
+        if (query.containsKey("location")) {
+            respond(exchange, 200, XML_HEADER + "<LocationConstraint" + S3_NAMESPACE + "></LocationConstraint>");
+        } else if (query.containsKey("policy")) {
+            if ("PUT".equals(method)) {
+                policies.put(bucketName, new String(drain(exchange), StandardCharsets.UTF_8));
+                respond(exchange, 204, null);
+            } else {
+                String policy = policies.get(bucketName);
+                respond(exchange, policy == null ? 404 : 200, policy == null ? error("NoSuchBucketPolicy", bucketName) : policy);
+            }
+        } else if (query.containsKey("delete")) {
+            String body = new String(drain(exchange), StandardCharsets.UTF_8);
+            Matcher matcher = DELETE_KEY.matcher(body);
+            while (matcher.find()) {
+                objects.remove(matcher.group(1));
+            }
+            respond(exchange, 200, XML_HEADER + "<DeleteResult" + S3_NAMESPACE + "></DeleteResult>");
+        } else if ("GET".equals(method)) {
+            respond(exchange, 200, list(bucketName, objects, query));
+        } else if ("DELETE".equals(method)) {
+            buckets.remove(bucketName);
+            respond(exchange, 204, null);
+        } else {
+            respond(exchange, 200, null);
+        }
+    }
+
+
+    private void handleObject(HttpExchange exchange, String method, String bucketName, String objectName,
+                              Map<String, String> query) throws IOException {
+        NavigableMap<String, Long> objects = buckets.get(bucketName);
+        if (objects == null) {
+            skip(exchange);
+            respond(exchange, 404, "HEAD".equals(method) ? null : error("NoSuchBucket", bucketName));
+            return;
+        }
+        String uploadId = query.get("uploadId");
+        if ("POST".equals(method) && query.containsKey("uploads")) {
+            uploadId = UUID.randomUUID().toString();
+            uploads.put(uploadId, new AtomicLong());
+            respond(exchange, 200, XML_HEADER + "<InitiateMultipartUploadResult" + S3_NAMESPACE + "><Bucket>"
+                    + bucketName + "</Bucket><Key>" + objectName + "</Key><UploadId>" + uploadId
+                    + "</UploadId></InitiateMultipartUploadResult>");
+        } else if ("PUT".equals(method) && uploadId != null) {
+            long size = skip(exchange);
+            uploads.get(uploadId).addAndGet(size);
+            exchange.getResponseHeaders().set("ETag", "\"" + query.get("partNumber") + "\"");
+            respond(exchange, 200, null);
+        } else if ("POST".equals(method) && uploadId != null) {
+            skip(exchange);
+            objects.put(objectName, uploads.remove(uploadId).get());
+            respond(exchange, 200, XML_HEADER + "<CompleteMultipartUploadResult" + S3_NAMESPACE + "><Location>"
+                    + objectName + "</Location><Bucket>" + bucketName + "</Bucket><Key>" + objectName
+                    + "</Key><ETag>\"multipart\"</ETag></CompleteMultipartUploadResult>");
+        } else if ("DELETE".equals(method) && uploadId != null) {
+            uploads.remove(uploadId);
+            respond(exchange, 204, null);
+        } else if ("PUT".equals(method)) {
+            objects.put(objectName, skip(exchange));
+            exchange.getResponseHeaders().set("ETag", "\"object\"");
+            respond(exchange, 200, null);
+        } else if ("DELETE".equals(method)) {
+            objects.remove(objectName);
+            respond(exchange, 204, null);
+        } else {
+            Long size = objects.get(objectName);
+            if (size == null) {
+                respond(exchange, 404, "HEAD".equals(method) ? null : error("NoSuchKey", objectName));
+                return;
+            }
+            exchange.getResponseHeaders().set("ETag", "\"object\"");
+            exchange.getResponseHeaders().set("Last-Modified", "Wed, 01 Jan 2020 00:00:00 GMT");
+            exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+            if ("HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(size));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, size);
+            byte[] buffer = new byte[64 * 1024];
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                for (long remaining = size; remaining > 0; remaining -= buffer.length) {
+                    outputStream.write(buffer, 0, (int) Math.min(buffer.length, remaining));
+                }
+            }
+        }
+    }
+
+
+    private String list(String bucketName, NavigableMap<String, Long> objects, Map<String, String> query) {
+        String prefix = query.getOrDefault("prefix", "");
+        int maxKeys = Integer.parseInt(query.getOrDefault("max-keys", "1000"));
+        String after = query.getOrDefault("continuation-token", query.get("start-after"));
+        NavigableMap<String, Long> range = after == null || after.isEmpty()
+                ? objects.tailMap(prefix, true) : objects.tailMap(after, false);
+        StringBuilder contents = new StringBuilder();
+        int count = 0;
+        String lastKey = null;
+        boolean truncated = false;
+        for (Iterator<Map.Entry<String, Long>> iterator = range.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            if (count == maxKeys) {
+                truncated = true;
+                break;
+            }
+            lastKey = entry.getKey();
+            count++;
+            contents.append("<Contents><Key>").append(lastKey).append("</Key><LastModified>").append(LAST_MODIFIED)
+                    .append("</LastModified><ETag>\"object\"</ETag><Size>").append(entry.getValue())
+                    .append("</Size><StorageClass>STANDARD</StorageClass></Contents>");
+        }
+        return XML_HEADER + "<ListBucketResult" + S3_NAMESPACE + "><Name>" + bucketName + "</Name><Prefix>" + prefix
+                + "</Prefix><KeyCount>" + count + "</KeyCount><MaxKeys>" + maxKeys + "</MaxKeys><IsTruncated>"
+                + truncated + "</IsTruncated>" + (truncated ? "<NextContinuationToken>" + lastKey
+                + "</NextContinuationToken>" : "") + contents + "</ListBucketResult>";
+    }
+
+
+    private static String error(String code, String resource) {
+        return XML_HEADER + "<Error><Code>" + code + "</Code><Message>" + code + "</Message><Resource>" + resource
+                + "</Resource><RequestId>stub</RequestId><HostId>stub</HostId></Error>";
+    }
+
+
+    private static Map<String, String> parseQuery(String rawQuery) throws IOException {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int index = pair.indexOf('=');
+            String name = URLDecoder.decode(index < 0 ? pair : pair.substring(0, index), "utf-8");
+            query.put(name, index < 0 ? "" : URLDecoder.decode(pair.substring(index + 1), "utf-8"));
+        }
+        return query;
+    }
+
+
+    private static byte[] drain(HttpExchange exchange) throws IOException {
+        try (InputStream inputStream = exchange.getRequestBody()) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = inputStream.read(buffer)) > 0) {
+                outputStream.write(buffer, 0, read);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+
+
+    private static long skip(HttpExchange exchange) throws IOException {
+        try (InputStream inputStream = exchange.getRequestBody()) {
+            byte[] buffer = SKIP_BUFFER.get();
+            long size = 0;
+            int read;
+            while ((read = inputStream.read(buffer)) > 0) {
+                size += read;
+            }
+            return size;
+        }
+    }
+
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", body.startsWith("<") ? "application/xml" : "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.github.minio.benchmark;
+
+import com.github.minio.MinIOExtendedClient;
+import com.github.minio.MinIOHttpClientFactory;
+import com.github.minio.MinIOProperties;
+import com.github.minio.MinIOTemplate;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * S3StubState
+ *
+ * The stub shared by all threads of a benchmark,it also marks the request count at the start of every iteration
+ *
+ * @author echils
+ */
+@State(Scope.Benchmark)
+public class S3StubState {
+
+    private S3StubServer stub;
+
+    private volatile long iterationStart;
+
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        stub = new S3StubServer();
+        stub.start();
+    }
+
+    @Setup(Level.Iteration)
+    public void markIteration() {
+        iterationStart = stub.requestCount();
+        claimed.set(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        stub.stop();
+    }
+
+
+    public S3StubServer stub() {
+        return stub;
+    }
+
+
+    /**
+     * Create a template connected to the stub
+     *
+     * @param minIOProperties {@link MinIOProperties}
+     */
+    public MinIOTemplate template(MinIOProperties minIOProperties) {
+        MinIOExtendedClient client = new MinIOExtendedClient(stub.endpoint(), null, "benchmark", "benchmark",
+                false, MinIOHttpClientFactory.create(minIOProperties));
+        return new MinIOTemplate(client, minIOProperties);
+    }
+
+
+    /**
+     * Take the requests of current iteration,only the first caller gets them so the sum over threads is exact
+     */
+    long claimIterationRequests() {
+        return claimed.compareAndSet(false, true) ? stub.requestCount() - iterationStart : 0;
+    }
+
+}
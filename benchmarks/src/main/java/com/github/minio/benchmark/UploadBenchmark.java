@@ -0,0 +1,72 @@
+package com.github.minio.benchmark;
+
+import com.github.minio.MinIOProperties;
+import com.github.minio.MinIOTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UploadBenchmark
+ *
+ * Measure the upload of a stream of the given size,the concurrency is the number of parts uploaded concurrently
+ *
+ * @author echils
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UploadBenchmark {
+
+    private static final String BUCKET = "upload";
+
+    @Param({"1024", "1048576", "33554432"})
+    public int objectSize;
+
+    @Param({"1", "4"})
+    public int concurrency;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private MinIOTemplate template;
+
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setup(S3StubState stubState) {
+        stubState.stub().createBucket(BUCKET, null);
+        MinIOProperties minIOProperties = new MinIOProperties();
+        minIOProperties.setMultipartPartSize(8 * 1024 * 1024);
+        minIOProperties.setMultipartParallelism(concurrency);
+        minIOProperties.setMultipartBufferPoolSize(concurrency * 2);
+        template = stubState.template(minIOProperties);
+        content = new byte[objectSize];
+        new Random(objectSize).nextBytes(content);
+    }
+
+
+    @Benchmark
+    public URI upload(RoundTripCounter counter) {
+        String uploadPath = "objects/" + (sequence.incrementAndGet() % 1000) + ".dat";
+        return template.upload(BUCKET, uploadPath, new ByteArrayInputStream(content), "application/octet-stream");
+    }
+
+}
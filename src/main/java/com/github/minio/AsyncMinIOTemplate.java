@@ -0,0 +1,617 @@
+package com.github.minio;
+
+import com.github.minio.schema.MinIOBucket;
+import com.github.minio.schema.MinIODeleteReport;
+import com.github.minio.schema.MinIOFile;
+import com.github.minio.schema.MinIOListOptions;
+import com.github.minio.schema.MinIOPolicy;
+import com.github.minio.schema.MinIOTransferOptions;
+import com.github.minio.schema.MinIOTransferReport;
+import io.minio.messages.Bucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * AsyncMinIOTemplate
+ *
+ * The asynchronous counterpart of {@link MinIOTemplate},every operation runs on the executor and completes
+ * the returned future,the number of in-flight operations is bounded and the operation beyond the bound waits
+ * in a bounded queue,the caller is never blocked and the future fails at once when the queue is full.
+ * The executor created by the template is shut down when the template is destroyed.The lazy streamFiles and
+ * iterateFiles have no counterpart,their listing runs while the caller consumes them
+ *
+ * @author echils
+ */
+public class AsyncMinIOTemplate implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncMinIOTemplate.class);
+
+    private final MinIOTemplate delegate;
+
+    private final Executor executor;
+
+    private final ExecutorService ownedExecutor;
+
+    private final int maxInFlight;
+
+    private final int maxQueued;
+
+    private final Semaphore permits;
+
+    private final Queue<Task<?>> waiting = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public AsyncMinIOTemplate(MinIOTemplate minIOTemplate, MinIOProperties minIOProperties) {
+        this(minIOTemplate, createExecutor(minIOProperties), true,
+                minIOProperties.getAsyncMaxInFlight(), minIOProperties.getAsyncMaxQueued());
+    }
+
+    public AsyncMinIOTemplate(MinIOTemplate minIOTemplate, Executor executor, MinIOProperties minIOProperties) {
+        this(minIOTemplate, executor, minIOProperties.getAsyncMaxInFlight(), minIOProperties.getAsyncMaxQueued());
+    }
+
+    public AsyncMinIOTemplate(MinIOTemplate minIOTemplate, Executor executor, int maxInFlight, int maxQueued) {
+        this(minIOTemplate, executor, false, maxInFlight, maxQueued);
+    }
+
+    private AsyncMinIOTemplate(MinIOTemplate minIOTemplate, Executor executor, boolean owned,
+                               int maxInFlight, int maxQueued) {
+        Assert.notNull(minIOTemplate, "Template is not allowed empty");
+        Assert.notNull(executor, "Executor is not allowed empty");
+        this.delegate = minIOTemplate;
+        this.executor = executor;
+        this.ownedExecutor = owned ? (ExecutorService) executor : null;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.permits = new Semaphore(this.maxInFlight);
+    }
+
+
+    /**
+     * Create the executor of asynchronous operations,use a virtual thread per task on JDK 21+ if enabled,
+     * otherwise a fixed pool of daemon threads
+     *
+     * @param minIOProperties {@link MinIOProperties}
+     */
+    public static ExecutorService createExecutor(MinIOProperties minIOProperties) {
+        if (minIOProperties.isAsyncVirtualThreads()) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.info("MinIO virtual threads are unavailable,use the platform threads");
+            }
+        }
+        return Executors.newFixedThreadPool(Math.max(1, minIOProperties.getAsyncThreads()),
+                new MinIOThreadFactory("minio-async"));
+    }
+
+
+    /**
+     * The number of operations in flight
+     */
+    public int getInFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+
+    /**
+     * The number of operations waiting for an in-flight slot
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+
+    /**
+     * Shut down the executor created by the template,the executor supplied by the caller is left running
+     */
+    @Override
+    public void destroy() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+
+    /**
+     * List all the buckets
+     */
+    public CompletableFuture<List<MinIOBucket>> listBuckets() {
+        return submit(delegate::listBuckets);
+    }
+
+
+    /**
+     * List all the buckets and support filtering
+     *
+     * @param predicate {@link Predicate}
+     */
+    public CompletableFuture<List<MinIOBucket>> listBuckets(Predicate<Bucket> predicate) {
+        return submit(() -> delegate.listBuckets(predicate));
+    }
+
+
+    /**
+     * Get bucket by name
+     *
+     * @param bucketName the name of bucket
+     */
+    public CompletableFuture<Optional<MinIOBucket>> getBucket(String bucketName) {
+        return submit(() -> delegate.getBucket(bucketName));
+    }
+
+
+    /**
+     * Determine whether the bucket exists
+     *
+     * @param bucketName the name of bucket
+     */
+    public CompletableFuture<Boolean> bucketExist(String bucketName) {
+        return submit(() -> delegate.bucketExist(bucketName));
+    }
+
+
+    /**
+     * Create a bucket with default policy
+     *
+     * @param bucketName the name of bucket
+     */
+    public CompletableFuture<Void> createBucket(String bucketName) {
+        return submit(() -> {
+            delegate.createBucket(bucketName);
+            return null;
+        });
+    }
+
+
+    /**
+     * Create a bucket
+     *
+     * @param bucketName the name of bucket
+     * @param policy     the policy of bucket
+     */
+    public CompletableFuture<Void> createBucket(String bucketName, MinIOPolicy.Policy policy) {
+        return submit(() -> {
+            delegate.createBucket(bucketName, policy);
+            return null;
+        });
+    }
+
+
+    /**
+     * Config bucket policy
+     *
+     * @param bucketName the name of bucket
+     * @param policy     the policy of bucket
+     */
+    public CompletableFuture<Void> setBucketPolicy(String bucketName, MinIOPolicy.Policy policy) {
+        return submit(() -> {
+            delegate.setBucketPolicy(bucketName, policy);
+            return null;
+        });
+    }
+
+
+    /**
+     * Delete bucket and all file in this bucket
+     *
+     * @param bucketName the name of bucket
+     */
+    public CompletableFuture<Void> deleteBucket(String bucketName) {
+        return submit(() -> {
+            delegate.deleteBucket(bucketName);
+            return null;
+        });
+    }
+
+
+    /**
+     * List the files of bucket
+     *
+     * @param bucketName the name of bucket
+     * @param options    {@link MinIOListOptions}
+     */
+    public CompletableFuture<List<MinIOFile>> listFiles(String bucketName, MinIOListOptions options) {
+        return submit(() -> delegate.listFiles(bucketName, options));
+    }
+
+
+    /**
+     * List all files of bucket
+     *
+     * @param bucketName the name of bucket
+     */
+    public CompletableFuture<List<MinIOFile>> listFiles(String bucketName) {
+        return submit(() -> delegate.listFiles(bucketName));
+    }
+
+
+    /**
+     * List all files by bucketName and prefix
+     *
+     * @param bucketName the name of bucket
+     * @param prefix     prefix of the file name
+     */
+    public CompletableFuture<List<MinIOFile>> listFiles(String bucketName, String prefix) {
+        return submit(() -> delegate.listFiles(bucketName, prefix));
+    }
+
+
+    /**
+     * List all files by bucketName and support filtering
+     *
+     * @param bucketName the name of bucket
+     * @param predicate  {@link Predicate}
+     */
+    public CompletableFuture<List<MinIOFile>> listFiles(String bucketName, Predicate<MinIOFile> predicate) {
+        return submit(() -> delegate.listFiles(bucketName, predicate));
+    }
+
+
+    /**
+     * Get minIO file by filename
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    public CompletableFuture<Optional<MinIOFile>> getFile(String bucketName, String filename) {
+        return submit(() -> delegate.getFile(bucketName, filename));
+    }
+
+
+    /**
+     * Determine whether the file exists
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    public CompletableFuture<Boolean> exists(String bucketName, String filename) {
+        return submit(() -> delegate.exists(bucketName, filename));
+    }
+
+
+    /**
+     * Get url of the file with expired
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     * @param duration   the time of expire
+     * @param timeUnit   the time of unit
+     */
+    public CompletableFuture<URI> getFileUrl(String bucketName, String filename, int duration, TimeUnit timeUnit) {
+        return submit(() -> delegate.getFileUrl(bucketName, filename, duration, timeUnit));
+    }
+
+
+    /**
+     * Get the url of the file
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    public CompletableFuture<URI> getFileUrl(String bucketName, String filename) {
+        return submit(() -> delegate.getFileUrl(bucketName, filename));
+    }
+
+
+    /**
+     * Get the urls of the files with expired
+     *
+     * @param bucketName the name of bucket
+     * @param filenames  the name of files
+     * @param duration   the time of expire
+     * @param timeUnit   the time of unit
+     * @return the urls in the order of filenames
+     */
+    public CompletableFuture<List<URI>> getFileUrls(String bucketName, List<String> filenames,
+                                                    int duration, TimeUnit timeUnit) {
+        return submit(() -> delegate.getFileUrls(bucketName, filenames, duration, timeUnit));
+    }
+
+
+    /**
+     * Copy file of bucket
+     *
+     * @param sourceBucketName The name of source bucket
+     * @param sourceFilename   The filename of source bucket
+     * @param targetBucketName The name of target bucket
+     * @param targetFilename   The filename of source file
+     */
+    public CompletableFuture<URI> copyFile(String sourceBucketName, String sourceFilename,
+                                           String targetBucketName, String targetFilename) {
+        return submit(() -> delegate.copyFile(sourceBucketName, sourceFilename, targetBucketName, targetFilename));
+    }
+
+
+    /**
+     * Copy all files of the source prefix on the server concurrently
+     *
+     * @param sourceBucketName the name of source bucket
+     * @param sourcePrefix     the prefix of source file name
+     * @param targetBucketName the name of target bucket
+     * @param targetPrefix     the prefix of target file name
+     * @param options          {@link MinIOTransferOptions},the filter of local files is not applied
+     */
+    public CompletableFuture<MinIOTransferReport> copyPrefix(String sourceBucketName, String sourcePrefix,
+                                                             String targetBucketName, String targetPrefix,
+                                                             MinIOTransferOptions options) {
+        return submit(() -> delegate.copyPrefix(sourceBucketName, sourcePrefix, targetBucketName, targetPrefix, options));
+    }
+
+
+    /**
+     * Move all files of the source prefix on the server concurrently
+     *
+     * @param sourceBucketName the name of source bucket
+     * @param sourcePrefix     the prefix of source file name
+     * @param targetBucketName the name of target bucket
+     * @param targetPrefix     the prefix of target file name
+     * @param options          {@link MinIOTransferOptions},the filter of local files is not applied
+     */
+    public CompletableFuture<MinIOTransferReport> movePrefix(String sourceBucketName, String sourcePrefix,
+                                                             String targetBucketName, String targetPrefix,
+                                                             MinIOTransferOptions options) {
+        return submit(() -> delegate.movePrefix(sourceBucketName, sourcePrefix, targetBucketName, targetPrefix, options));
+    }
+
+
+    /**
+     * Delete minio file if exist
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    public CompletableFuture<Void> deleteFile(String bucketName, String filename) {
+        return submit(() -> {
+            delegate.deleteFile(bucketName, filename);
+            return null;
+        });
+    }
+
+
+    /**
+     * Batch delete minIO file
+     *
+     * @param bucketName the name of bucket
+     * @param filenames  the name of files
+     */
+    public CompletableFuture<MinIODeleteReport> deleteFiles(String bucketName, List<String> filenames) {
+        return submit(() -> delegate.deleteFiles(bucketName, filenames));
+    }
+
+
+    /**
+     * Download file with stream,the stream must be closed by the caller
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    public CompletableFuture<InputStream> downloadFile(String bucketName, String filename) {
+        return submit(() -> delegate.downloadFile(bucketName, filename));
+    }
+
+
+    /**
+     * Download file with path
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     * @param path       the local path of download
+     */
+    public CompletableFuture<Void> downloadFile(String bucketName, String filename, String path) {
+        return submit(() -> {
+            delegate.downloadFile(bucketName, filename, path);
+            return null;
+        });
+    }
+
+
+    /**
+     * Download file with path by fetching byte ranges concurrently
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     * @param path       the local path of download
+     */
+    public CompletableFuture<Void> parallelDownloadFile(String bucketName, String filename, String path) {
+        return submit(() -> {
+            delegate.parallelDownloadFile(bucketName, filename, path);
+            return null;
+        });
+    }
+
+
+    /**
+     * Download all files of the prefix to the local directory concurrently
+     *
+     * @param bucketName the name of bucket
+     * @param prefix     the prefix of object name
+     * @param directory  the local directory
+     * @param options    {@link MinIOTransferOptions}
+     */
+    public CompletableFuture<MinIOTransferReport> downloadPrefix(String bucketName, String prefix, File directory,
+                                                                 MinIOTransferOptions options) {
+        return submit(() -> delegate.downloadPrefix(bucketName, prefix, directory, options));
+    }
+
+
+    /**
+     * Upload file by file,default upload to the bucket path
+     *
+     * @param bucketName the name of bucket
+     * @param file       the file of upload
+     */
+    public CompletableFuture<URI> upload(String bucketName, File file) {
+        return submit(() -> delegate.upload(bucketName, file));
+    }
+
+
+    /**
+     * Upload file by file with custom upload path
+     *
+     * @param bucketName the name of bucket
+     * @param uploadPath the path of upload
+     * @param file       the file of upload
+     */
+    public CompletableFuture<URI> upload(String bucketName, String uploadPath, File file) {
+        return submit(() -> delegate.upload(bucketName, uploadPath, file));
+    }
+
+
+    /**
+     * Upload file by inputStream,the stream is read on the executor and is not closed
+     *
+     * @param bucketName  the name of bucket
+     * @param uploadPath  the path of upload
+     * @param inputStream the stream of upload file
+     * @param contentType the content type of upload type
+     */
+    public CompletableFuture<URI> upload(String bucketName, String uploadPath, InputStream inputStream, String contentType) {
+        return submit(() -> delegate.upload(bucketName, uploadPath, inputStream, contentType));
+    }
+
+
+    /**
+     * Upload all files of the local directory concurrently
+     *
+     * @param bucketName the name of bucket
+     * @param directory  the local directory
+     * @param prefix     the prefix of object name
+     * @param options    {@link MinIOTransferOptions}
+     */
+    public CompletableFuture<MinIOTransferReport> uploadDirectory(String bucketName, File directory, String prefix,
+                                                                  MinIOTransferOptions options) {
+        return submit(() -> delegate.uploadDirectory(bucketName, directory, prefix, options));
+    }
+
+
+    /**
+     * Upload the files concurrently
+     *
+     * @param bucketName the name of bucket
+     * @param files      the upload path and the file of upload
+     */
+    public CompletableFuture<MinIOTransferReport> uploadAll(String bucketName, Map<String, File> files) {
+        return submit(() -> delegate.uploadAll(bucketName, files));
+    }
+
+
+    /**
+     * Upload the files concurrently
+     *
+     * @param bucketName the name of bucket
+     * @param files      the upload path and the file of upload
+     * @param options    {@link MinIOTransferOptions}
+     */
+    public CompletableFuture<MinIOTransferReport> uploadAll(String bucketName, Map<String, File> files,
+                                                            MinIOTransferOptions options) {
+        return submit(() -> delegate.uploadAll(bucketName, files, options));
+    }
+
+
+    /**
+     * Run the operation on the executor if a slot is free,otherwise queue it until a slot is released,
+     * the future fails at once if the queue is full
+     *
+     * @param operation the operation of template
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        Task<T> task = new Task<>(operation);
+        if (permits.tryAcquire()) {
+            dispatch(task);
+        } else if (queued.incrementAndGet() <= maxQueued) {
+            waiting.add(task);
+            drain();
+        } else {
+            queued.decrementAndGet();
+            return failed(new MinIOExecuteException("Too many in-flight MinIO operations:" + maxInFlight));
+        }
+        return task.future;
+    }
+
+
+    /**
+     * Dispatch the queued operations while the slots are free
+     */
+    private void drain() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Task<?> task = waiting.poll();
+            if (task == null) {
+                permits.release();
+                return;
+            }
+            queued.decrementAndGet();
+            dispatch(task);
+        }
+    }
+
+
+    /**
+     * Run the task holding a slot on the executor,the slot is released when the task completes
+     */
+    private void dispatch(Task<?> task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            task.future.completeExceptionally(new MinIOExecuteException(e));
+        }
+    }
+
+
+    private static <T> CompletableFuture<T> failed(Throwable throwable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+
+
+    /**
+     * An operation and its future
+     */
+    private class Task<T> implements Runnable {
+
+        private final Supplier<T> operation;
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Task(Supplier<T> operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public void run() {
+            try {
+                future.complete(operation.get());
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            } finally {
+                permits.release();
+                drain();
+            }
+        }
+    }
+
+}
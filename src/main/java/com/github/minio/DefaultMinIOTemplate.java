@@ -1,17 +1,25 @@
 package com.github.minio;
 
 import com.github.minio.schema.MinIOBucket;
+import com.github.minio.schema.MinIODeleteReport;
 import com.github.minio.schema.MinIOFile;
+import com.github.minio.schema.MinIOIndexOptions;
+import com.github.minio.schema.MinIOListOptions;
 import com.github.minio.schema.MinIOPolicy;
+import com.github.minio.schema.MinIOTransferOptions;
+import com.github.minio.schema.MinIOTransferReport;
 import org.springframework.util.Assert;
 
 import java.io.File;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * DefaultMinIOTemplate
@@ -82,6 +90,82 @@ public class DefaultMinIOTemplate {
     }
 
 
+    /**
+     * List current bucket files with options
+     *
+     * @param options {@link MinIOListOptions}
+     */
+    public List<MinIOFile> listFiles(MinIOListOptions options) {
+        return delegate.listFiles(defaultBucket, options);
+    }
+
+
+    /**
+     * Lazily stream all files of current bucket
+     */
+    public Stream<MinIOFile> streamFiles() {
+        return delegate.streamFiles(defaultBucket);
+    }
+
+
+    /**
+     * Lazily stream current bucket files by prefix
+     *
+     * @param prefix prefix of the file name
+     */
+    public Stream<MinIOFile> streamFiles(String prefix) {
+        return delegate.streamFiles(defaultBucket, prefix);
+    }
+
+
+    /**
+     * Lazily stream current bucket files with options
+     *
+     * @param options {@link MinIOListOptions}
+     */
+    public Stream<MinIOFile> streamFiles(MinIOListOptions options) {
+        return delegate.streamFiles(defaultBucket, options);
+    }
+
+
+    /**
+     * Lazily iterate all files of current bucket
+     */
+    public Iterator<MinIOFile> iterateFiles() {
+        return delegate.iterateFiles(defaultBucket);
+    }
+
+
+    /**
+     * Lazily iterate current bucket files by prefix
+     *
+     * @param prefix prefix of the file name
+     */
+    public Iterator<MinIOFile> iterateFiles(String prefix) {
+        return delegate.iterateFiles(defaultBucket, prefix);
+    }
+
+
+    /**
+     * Lazily iterate current bucket files with options
+     *
+     * @param options {@link MinIOListOptions}
+     */
+    public Iterator<MinIOFile> iterateFiles(MinIOListOptions options) {
+        return delegate.iterateFiles(defaultBucket, options);
+    }
+
+
+    /**
+     * Open a local index of current bucket files
+     *
+     * @param options {@link MinIOIndexOptions}
+     */
+    public MinIOBucketIndex openIndex(MinIOIndexOptions options) {
+        return delegate.openIndex(defaultBucket, options);
+    }
+
+
     /**
      * Get file by filename in current file
      *
@@ -92,6 +176,16 @@ public class DefaultMinIOTemplate {
     }
 
 
+    /**
+     * Determine whether the file exists in current bucket
+     *
+     * @param filename the name of file
+     */
+    public boolean exists(String filename) {
+        return delegate.exists(defaultBucket, filename);
+    }
+
+
     /**
      * Get url of the file with expired in current file
      *
@@ -104,6 +198,18 @@ public class DefaultMinIOTemplate {
     }
 
 
+    /**
+     * Get urls of the files with expired in current bucket
+     *
+     * @param filenames the name of files
+     * @param duration  the time of expire
+     * @param timeUnit  the time of unit
+     */
+    public List<URI> getFileUrls(List<String> filenames, int duration, TimeUnit timeUnit) {
+        return delegate.getFileUrls(defaultBucket, filenames, duration, timeUnit);
+    }
+
+
     /**
      * Get the url of the file in current file,if the bucket is shared the url will never expired,otherwise default 7 day valid time
      *
@@ -125,6 +231,30 @@ public class DefaultMinIOTemplate {
     }
 
 
+    /**
+     * Copy all files of the source prefix to the target prefix in current bucket
+     *
+     * @param sourcePrefix the prefix of source file name
+     * @param targetPrefix the prefix of target file name
+     * @param options      {@link MinIOTransferOptions}
+     */
+    public MinIOTransferReport copyPrefix(String sourcePrefix, String targetPrefix, MinIOTransferOptions options) {
+        return delegate.copyPrefix(defaultBucket, sourcePrefix, defaultBucket, targetPrefix, options);
+    }
+
+
+    /**
+     * Move all files of the source prefix to the target prefix in current bucket
+     *
+     * @param sourcePrefix the prefix of source file name
+     * @param targetPrefix the prefix of target file name
+     * @param options      {@link MinIOTransferOptions}
+     */
+    public MinIOTransferReport movePrefix(String sourcePrefix, String targetPrefix, MinIOTransferOptions options) {
+        return delegate.movePrefix(defaultBucket, sourcePrefix, defaultBucket, targetPrefix, options);
+    }
+
+
     /**
      * Delete minIo file if exist in current bucket
      *
@@ -140,8 +270,18 @@ public class DefaultMinIOTemplate {
      *
      * @param filenames the name of files
      */
-    public void deleteFiles(List<String> filenames) {
-        delegate.deleteFiles(defaultBucket, filenames);
+    public MinIODeleteReport deleteFiles(List<String> filenames) {
+        return delegate.deleteFiles(defaultBucket, filenames);
+    }
+
+
+    /**
+     * Batch delete minIo file in current bucket,the names are consumed lazily
+     *
+     * @param filenames the name of files
+     */
+    public MinIODeleteReport deleteFiles(Iterator<String> filenames) {
+        return delegate.deleteFiles(defaultBucket, filenames);
     }
 
 
@@ -166,6 +306,29 @@ public class DefaultMinIOTemplate {
     }
 
 
+    /**
+     * Download file with path in current bucket by fetching byte ranges concurrently
+     *
+     * @param filename the name of file
+     * @param path     the local path of download
+     */
+    public void parallelDownloadFile(String filename, String path) {
+        delegate.parallelDownloadFile(defaultBucket, filename, path);
+    }
+
+
+    /**
+     * Download all files of the prefix in current bucket to the local directory
+     *
+     * @param prefix    the prefix of object name
+     * @param directory the local directory
+     * @param options   {@link MinIOTransferOptions}
+     */
+    public MinIOTransferReport downloadPrefix(String prefix, File directory, MinIOTransferOptions options) {
+        return delegate.downloadPrefix(defaultBucket, prefix, directory, options);
+    }
+
+
     /**
      * Upload file to current bucket by local file,default upload to the bucket path
      *
@@ -198,6 +361,28 @@ public class DefaultMinIOTemplate {
         return delegate.upload(defaultBucket, uploadPath, inputStream, contentType);
     }
 
+
+    /**
+     * Upload all files of the local directory to current bucket
+     *
+     * @param directory the local directory
+     * @param prefix    the prefix of object name
+     * @param options   {@link MinIOTransferOptions}
+     */
+    public MinIOTransferReport uploadDirectory(File directory, String prefix, MinIOTransferOptions options) {
+        return delegate.uploadDirectory(defaultBucket, directory, prefix, options);
+    }
+
+
+    /**
+     * Upload the files to current bucket concurrently
+     *
+     * @param files the upload path and the file of upload
+     */
+    public MinIOTransferReport uploadAll(Map<String, File> files) {
+        return delegate.uploadAll(defaultBucket, files);
+    }
+
 }
 
 
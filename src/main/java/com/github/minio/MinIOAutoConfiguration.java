@@ -1,6 +1,18 @@
 package com.github.minio;
 
+import com.github.minio.event.MinIOEventListenerProcessor;
+import com.github.minio.metrics.MicrometerMinIOMetrics;
+import com.github.minio.metrics.MinIOMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,6 +22,9 @@ import org.springframework.context.annotation.Configuration;
  * @author echils
  */
 @Configuration
+@AutoConfigureAfter(name = {
+        "org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"})
 public class MinIOAutoConfiguration {
 
     @Bean
@@ -17,25 +32,152 @@ public class MinIOAutoConfiguration {
         return new MinIOProperties();
     }
 
+    @Bean
+    @ConditionalOnMissingBean(MinIOHttpTransport.class)
+    public MinIOHttpTransport minIOHttpTransport(MinIOProperties minioProperties) {
+        return new MinIOHttpTransport(MinIOHttpClientFactory.create(minioProperties));
+    }
+
     @Bean
     @ConditionalOnMissingBean(name = "connectionFactory")
-    public IMinIOConnectionFactory connectionFactory() {
-        return new MinIODefaultConnectionFactory();
+    public IMinIOConnectionFactory connectionFactory(MinIOProperties minioProperties) {
+        return minioProperties.getEndpoints().isEmpty()
+                ? new MinIODefaultConnectionFactory() : new MinIORoutingConnectionFactory();
     }
 
     @Bean
     @ConditionalOnMissingBean(name = "minIOTemplate")
-    public MinIOTemplate minIOTemplate(IMinIOConnectionFactory minIOConnectionFactory) {
-        return new MinIOTemplate(minIOConnectionFactory.getConnection());
+    public MinIOTemplate minIOTemplate(IMinIOConnectionFactory minIOConnectionFactory,
+                                       MinIOProperties minioProperties,
+                                       ObjectProvider<MinIOMetrics> minIOMetrics) {
+        return new MinIOTemplate(minIOConnectionFactory.getConnection(), minioProperties,
+                minIOMetrics.getIfAvailable(() -> MinIOMetrics.NOOP));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "asyncMinIOTemplate")
+    public AsyncMinIOTemplate asyncMinIOTemplate(MinIOTemplate minIOTemplate, MinIOProperties minioProperties) {
+        return new AsyncMinIOTemplate(minIOTemplate, minioProperties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.minio", name = "event-listener-enabled", matchIfMissing = true)
+    @ConditionalOnMissingBean(MinIOEventListenerProcessor.class)
+    public static MinIOEventListenerProcessor minIOEventListenerProcessor() {
+        return new MinIOEventListenerProcessor();
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class MinIOMicrometerConfiguration {
+
+        @Bean
+        @ConditionalOnBean(MeterRegistry.class)
+        @ConditionalOnMissingBean(MinIOMetrics.class)
+        public MinIOMetrics minIOMetrics(MeterRegistry meterRegistry, MinIOProperties minioProperties) {
+            return new MicrometerMinIOMetrics(meterRegistry, minioProperties.isMetricsPercentileHistogram());
+        }
+
+        /**
+         * Bind the counters of the resilience interceptor of http client:
+         * minio.http.retries the retried requests
+         * minio.http.hedges the hedged requests sent
+         * minio.http.hedge.wins the hedged requests which responded first
+         * minio.http.deadline.exceeded the requests which gave up because of the deadline
+         */
+        @Bean
+        @ConditionalOnBean(MeterRegistry.class)
+        @ConditionalOnMissingBean(name = "minIOResilienceMeterBinder")
+        public MeterBinder minIOResilienceMeterBinder(ObjectProvider<MinIOHttpTransport> minIOHttpTransport) {
+            return registry -> minIOHttpTransport.ifAvailable(transport -> MinIOHttpClientFactory
+                    .getResilience(transport.getHttpClient())
+                    .ifPresent(resilience -> {
+                        FunctionCounter.builder("minio.http.retries", resilience,
+                                MinIOResilienceInterceptor::retryCount).register(registry);
+                        FunctionCounter.builder("minio.http.hedges", resilience,
+                                MinIOResilienceInterceptor::hedgeCount).register(registry);
+                        FunctionCounter.builder("minio.http.hedge.wins", resilience,
+                                MinIOResilienceInterceptor::hedgeWinCount).register(registry);
+                        FunctionCounter.builder("minio.http.deadline.exceeded", resilience,
+                                MinIOResilienceInterceptor::deadlineExceededCount).register(registry);
+                    }));
+        }
+
+        /**
+         * Bind the statistics of the endpoints of distributed server,tagged by the url of endpoint:
+         * minio.endpoint.requests the requests sent
+         * minio.endpoint.failures the failed requests
+         * minio.endpoint.outstanding the requests in flight
+         * minio.endpoint.latency the moving average of the time to the response headers
+         * minio.endpoint.healthy 1 if the endpoint receives requests,otherwise 0
+         */
+        @Bean
+        @ConditionalOnBean(MeterRegistry.class)
+        @ConditionalOnMissingBean(name = "minIOEndpointMeterBinder")
+        public MeterBinder minIOEndpointMeterBinder(ObjectProvider<MinIOHttpTransport> minIOHttpTransport) {
+            return registry -> minIOHttpTransport.ifAvailable(transport -> MinIOHttpClientFactory
+                    .getRouter(transport.getHttpClient())
+                    .ifPresent(router -> router.getEndpoints().forEach(endpoint -> {
+                        FunctionCounter.builder("minio.endpoint.requests", endpoint,
+                                MinIOEndpointRouter.Endpoint::getRequestCount).tag("endpoint", endpoint.getUrl()).register(registry);
+                        FunctionCounter.builder("minio.endpoint.failures", endpoint,
+                                MinIOEndpointRouter.Endpoint::getFailureCount).tag("endpoint", endpoint.getUrl()).register(registry);
+                        Gauge.builder("minio.endpoint.outstanding", endpoint, MinIOEndpointRouter.Endpoint::getOutstanding)
+                                .tag("endpoint", endpoint.getUrl()).register(registry);
+                        Gauge.builder("minio.endpoint.latency", endpoint, MinIOEndpointRouter.Endpoint::getLatency)
+                                .tag("endpoint", endpoint.getUrl()).baseUnit("milliseconds").register(registry);
+                        Gauge.builder("minio.endpoint.healthy", endpoint, e -> e.isHealthy() ? 1 : 0)
+                                .tag("endpoint", endpoint.getUrl()).register(registry);
+                    })));
+        }
+
+        /**
+         * Bind the counters of the event listeners:
+         * minio.events.received the received events
+         * minio.events.handled the events handled successfully
+         * minio.events.failed the events whose handling failed
+         * minio.events.blocked the milliseconds the receiving is blocked by the full queues
+         * minio.events.reconnects the reconnections of notifications
+         * minio.events.queued the events waiting in the queues
+         */
+        @Bean
+        @ConditionalOnBean(MeterRegistry.class)
+        @ConditionalOnMissingBean(name = "minIOEventMeterBinder")
+        public MeterBinder minIOEventMeterBinder(ObjectProvider<MinIOEventListenerProcessor> minIOEventListenerProcessor) {
+            return registry -> minIOEventListenerProcessor.ifAvailable(processor -> {
+                FunctionCounter.builder("minio.events.received", processor,
+                        MinIOEventListenerProcessor::receivedCount).register(registry);
+                FunctionCounter.builder("minio.events.handled", processor,
+                        MinIOEventListenerProcessor::handledCount).register(registry);
+                FunctionCounter.builder("minio.events.failed", processor,
+                        MinIOEventListenerProcessor::failedCount).register(registry);
+                FunctionCounter.builder("minio.events.blocked", processor,
+                        MinIOEventListenerProcessor::blockedTime).baseUnit("milliseconds").register(registry);
+                FunctionCounter.builder("minio.events.reconnects", processor,
+                        MinIOEventListenerProcessor::reconnectCount).register(registry);
+                Gauge.builder("minio.events.queued", processor, MinIOEventListenerProcessor::queued).register(registry);
+            });
+        }
+
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "reactor.core.publisher.Flux")
+    static class MinIOReactiveConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(name = "reactiveMinIOTemplate")
+        public ReactiveMinIOTemplate reactiveMinIOTemplate(MinIOTemplate minIOTemplate) {
+            return new ReactiveMinIOTemplate(minIOTemplate);
+        }
+
     }
 
     @Bean
     @ConditionalOnMissingBean(name = "defaultMinIOTemplate")
-    public DefaultMinIOTemplate defaultMinIOTemplate(IMinIOConnectionFactory connectionFactory,
+    public DefaultMinIOTemplate defaultMinIOTemplate(MinIOTemplate minIOTemplate,
                                                      MinIOProperties minioProperties) {
-
-        return new DefaultMinIOTemplate(new MinIOTemplate(connectionFactory.getConnection()),
-                minioProperties.getDefaultBucket());
+        return new DefaultMinIOTemplate(minIOTemplate, minioProperties.getDefaultBucket());
     }
 
 }
@@ -0,0 +1,122 @@
+package com.github.minio;
+
+import com.github.minio.metrics.MinIOOperationContext;
+import com.github.minio.schema.MinIODeleteReport;
+import io.minio.MinioClient;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * MinIOBatchDeleter
+ *
+ * Delete files with multi-object delete requests,every request carries a chunk of up to 1000 keys and the
+ * chunks can be dispatched concurrently
+ *
+ * @author echils
+ */
+public class MinIOBatchDeleter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MinIOBatchDeleter.class);
+
+    /**
+     * The max number of keys of one multi-object delete request
+     */
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final MinioClient minioClient;
+
+    private final int batchSize;
+
+    private final int parallelism;
+
+    private final ThreadPoolExecutor executor;
+
+    public MinIOBatchDeleter(MinioClient minioClient, MinIOProperties minIOProperties) {
+        this.minioClient = minioClient;
+        this.batchSize = Math.min(MAX_BATCH_SIZE, Math.max(1, minIOProperties.getDeleteBatchSize()));
+        this.parallelism = Math.max(1, minIOProperties.getDeleteParallelism());
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new MinIOThreadFactory("minio-delete"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+
+    /**
+     * Delete the files,the names are consumed chunk by chunk so the iterator can be a lazy listing
+     *
+     * @param bucketName the name of bucket
+     * @param filenames  the name of files
+     */
+    public MinIODeleteReport delete(String bucketName, Iterator<String> filenames) throws Exception {
+        MinIODeleteReport report = new MinIODeleteReport();
+        Deque<Future<MinIODeleteReport>> futures = new ArrayDeque<>();
+        try {
+            while (filenames.hasNext()) {
+                List<String> chunk = new ArrayList<>(batchSize);
+                while (chunk.size() < batchSize && filenames.hasNext()) {
+                    chunk.add(filenames.next());
+                }
+                if (parallelism == 1) {
+                    report.merge(deleteChunk(bucketName, chunk));
+                    continue;
+                }
+                if (futures.size() >= parallelism) {
+                    report.merge(futures.poll().get());
+                }
+                futures.add(executor.submit(MinIOOperationContext.wrap(() -> deleteChunk(bucketName, chunk))));
+            }
+            while (!futures.isEmpty()) {
+                report.merge(futures.poll().get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : new MinIOExecuteException(cause);
+        }
+        return report;
+    }
+
+
+    private MinIODeleteReport deleteChunk(String bucketName, List<String> chunk) {
+        MinIODeleteReport report = new MinIODeleteReport();
+        Set<String> pending = new LinkedHashSet<>(chunk);
+        List<DeleteObject> objects = chunk.stream().map(DeleteObject::new).collect(Collectors.toList());
+        Iterable<Result<DeleteError>> results = minioClient.removeObjects(RemoveObjectsArgs.builder()
+                .bucket(bucketName).objects(objects).build());
+        try {
+            for (Result<DeleteError> result : results) {
+                DeleteError error = result.get();
+                pending.remove(error.objectName());
+                report.getFailed().put(error.objectName(), error.errorCode().name());
+            }
+        } catch (Exception e) {
+            String errorCode = e instanceof ErrorResponseException
+                    ? ((ErrorResponseException) e).errorResponse().errorCode().name() : e.getClass().getSimpleName();
+            logger.error("MinIO batch delete {} files of bucket:{} failed:{}", pending.size(), bucketName, e.getMessage());
+            pending.forEach(filename -> report.getFailed().put(filename, errorCode));
+            pending.clear();
+        }
+        report.getDeleted().addAll(pending);
+        return report;
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.github.minio;
+
+import com.github.minio.schema.MinIOTransferListener;
+import com.github.minio.schema.MinIOTransferReport;
+import io.minio.errors.ErrorResponseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * MinIOBatchTransfer
+ *
+ * Transfer many files on a bounded worker pool,the files are taken from the iterator only when a worker
+ * slot is free so a directory or a listing can be walked lazily,the failure of one file does not stop the others
+ *
+ * @author echils
+ */
+public class MinIOBatchTransfer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MinIOBatchTransfer.class);
+
+    private final int parallelism;
+
+    private final ThreadPoolExecutor executor;
+
+    public MinIOBatchTransfer(MinIOProperties minIOProperties) {
+        this.parallelism = Math.max(1, minIOProperties.getTransferParallelism());
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new MinIOThreadFactory("minio-transfer"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+
+    /**
+     * Transfer the files
+     *
+     * @param files       the files of transfer
+     * @param parallelism the max number of files transferred concurrently,the pool size is used if not positive
+     * @param naming      the name of file recorded in the report
+     * @param transfer    transfer one file,return the transferred bytes or a negative number if the file is skipped
+     * @param listener    notified when every file is done,null means no notification
+     */
+    public <T> MinIOTransferReport transfer(Iterator<T> files, int parallelism, Function<T, String> naming,
+                                            FileTransfer<T> transfer, MinIOTransferListener listener) {
+        MinIOTransferReport report = new MinIOTransferReport();
+        int permits = parallelism > 0 ? parallelism : this.parallelism;
+        Semaphore semaphore = new Semaphore(permits);
+        long start = System.currentTimeMillis();
+        try {
+            while (files.hasNext()) {
+                T file = files.next();
+                semaphore.acquire();
+                try {
+                    executor.execute(() -> {
+                        try {
+                            transfer(naming.apply(file), file, transfer, report, listener);
+                        } finally {
+                            semaphore.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    semaphore.release();
+                    throw e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MinIOExecuteException(e);
+        } finally {
+            semaphore.acquireUninterruptibly(permits);
+            report.setElapsed(System.currentTimeMillis() - start);
+        }
+        return report;
+    }
+
+
+    private <T> void transfer(String filename, T file, FileTransfer<T> transfer, MinIOTransferReport report,
+                              MinIOTransferListener listener) {
+        MinIOTransferListener.Status status;
+        try {
+            long bytes = transfer.transfer(file);
+            if (bytes >= 0) {
+                report.addTransferred(filename, bytes);
+                status = MinIOTransferListener.Status.TRANSFERRED;
+            } else {
+                report.addSkipped(filename);
+                status = MinIOTransferListener.Status.SKIPPED;
+            }
+        } catch (Exception e) {
+            Throwable cause = e instanceof MinIOExecuteException && e.getCause() != null ? e.getCause() : e;
+            String error = cause instanceof ErrorResponseException
+                    ? ((ErrorResponseException) cause).errorResponse().errorCode().name() : cause.getClass().getSimpleName();
+            logger.error("MinIO batch transfer file:{} failed:{}", filename, cause.getMessage());
+            report.addFailed(filename, error);
+            status = MinIOTransferListener.Status.FAILED;
+        }
+        if (listener != null) {
+            notifyProgress(filename, status, report, listener);
+        }
+    }
+
+
+    private void notifyProgress(String filename, MinIOTransferListener.Status status, MinIOTransferReport report,
+                                MinIOTransferListener listener) {
+        long files;
+        long bytes;
+        synchronized (report) {
+            files = report.getTransferred().size() + report.getSkipped().size() + report.getFailed().size();
+            bytes = report.getBytes();
+        }
+        try {
+            listener.onProgress(filename, status, files, bytes);
+        } catch (RuntimeException e) {
+            logger.warn("MinIO transfer listener of file:{} failed:{}", filename, e.getMessage());
+        }
+    }
+
+
+    /**
+     * Transfer one file of batch
+     */
+    @FunctionalInterface
+    public interface FileTransfer<T> {
+
+        /**
+         * Transfer the file,return the transferred bytes or a negative number if the file is skipped
+         *
+         * @param file the file of transfer
+         */
+        long transfer(T file) throws Exception;
+    }
+
+}
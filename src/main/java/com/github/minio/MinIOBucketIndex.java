@@ -0,0 +1,545 @@
+package com.github.minio;
+
+import com.github.minio.event.MinIOEvent;
+import com.github.minio.event.MinIOEventSubscription;
+import com.github.minio.schema.MinIOFile;
+import com.github.minio.schema.MinIOIndexOptions;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * MinIOBucketIndex
+ *
+ * A local index of the files of bucket,it is seeded by one streaming listing and kept fresh by the bucket
+ * notifications,the delta scans after the last indexed name or the periodic rescans.The files are stored as
+ * sorted name,size and modified time columns,so the lookups,prefix and range queries are answered locally
+ * by binary search and the predicates are tested on the primitive columns without creating any file.
+ * The received changes are merged into the index every flush interval
+ *
+ * @author echils
+ */
+public class MinIOBucketIndex implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MinIOBucketIndex.class);
+
+    private static final String[] NOTIFICATION_EVENTS = {"s3:ObjectCreated:*", "s3:ObjectRemoved:*"};
+
+    private static final int NOTIFICATION_QUEUE_CAPACITY = 1024;
+
+    private final MinioClient minioClient;
+
+    private final String bucketName;
+
+    private final MinIOIndexOptions options;
+
+    private final BiFunction<String, String, URI> urlResolver;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * The received changes by file name,the latest change of a file wins
+     */
+    private TreeMap<String, Change> pending = new TreeMap<>();
+
+    private final Object pendingLock = new Object();
+
+    private volatile Columns columns = new Columns(16);
+
+    private volatile long lastScanTime;
+
+    /**
+     * The number of started full listings
+     */
+    private volatile long scanCount;
+
+    private volatile boolean closed;
+
+    private volatile MinIOEventSubscription notifications;
+
+    private Consumer<Exception> listingErrorListener;
+
+    public MinIOBucketIndex(MinioClient minioClient, String bucketName, MinIOIndexOptions options,
+                            BiFunction<String, String, URI> urlResolver) {
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+        this.options = options == null ? new MinIOIndexOptions() : options;
+        this.urlResolver = urlResolver;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, new MinIOThreadFactory("minio-index-" + bucketName));
+    }
+
+
+    /**
+     * Run the listener with the error of listing before it is thrown,such as evicting the cached bucket state
+     *
+     * @param listingErrorListener the listener of listing error
+     */
+    MinIOBucketIndex onListingError(Consumer<Exception> listingErrorListener) {
+        this.listingErrorListener = listingErrorListener;
+        return this;
+    }
+
+
+    /**
+     * Seed the index by listing the prefix and start keeping it fresh,the notifications are subscribed before
+     * seeding and the prefix is listed again once they are connected unless a listing has started since then,
+     * so the changes made before the first notification are not missed
+     */
+    public MinIOBucketIndex start() {
+        if (options.isListenNotifications()) {
+            notifications = new MinIOEventSubscription(minioClient, bucketName, options.getPrefix(), null,
+                    NOTIFICATION_EVENTS, this::apply, 1, NOTIFICATION_QUEUE_CAPACITY, NOTIFICATION_QUEUE_CAPACITY)
+                    .onConnect(this::rescanAfterConnect).start();
+        }
+        try {
+            rescan();
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+        long flushInterval = Math.max(1, options.getFlushInterval());
+        scheduler.scheduleWithFixedDelay(this::safeFlush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        if (options.getDeltaScanInterval() > 0) {
+            scheduler.scheduleWithFixedDelay(() -> safely("delta scan", this::deltaScan),
+                    options.getDeltaScanInterval(), options.getDeltaScanInterval(), TimeUnit.MILLISECONDS);
+        }
+        if (options.getRescanInterval() > 0) {
+            scheduler.scheduleWithFixedDelay(() -> safely("rescan", this::rescan),
+                    options.getRescanInterval(), options.getRescanInterval(), TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+
+    /**
+     * The number of indexed files
+     */
+    public int size() {
+        return columns.size;
+    }
+
+
+    /**
+     * The time of the last full listing,the unit is millisecond
+     */
+    public long getLastScanTime() {
+        return lastScanTime;
+    }
+
+
+    /**
+     * Get the indexed file by filename
+     *
+     * @param filename the name of file
+     */
+    public Optional<MinIOFile> getFile(String filename) {
+        Columns current = columns;
+        int index = Arrays.binarySearch(current.names, 0, current.size, filename);
+        return index < 0 ? Optional.empty() : Optional.of(current.file(index));
+    }
+
+
+    /**
+     * List the indexed files by prefix
+     *
+     * @param prefix prefix of the file name
+     */
+    public List<MinIOFile> listFiles(String prefix) {
+        return listFiles(prefix, (EntryPredicate) null);
+    }
+
+
+    /**
+     * List the indexed files by prefix with filtering on the columns
+     *
+     * @param prefix    prefix of the file name
+     * @param predicate {@link EntryPredicate},null means all files
+     */
+    public List<MinIOFile> listFiles(String prefix, EntryPredicate predicate) {
+        Columns current = columns;
+        String start = prefix == null ? "" : prefix;
+        List<MinIOFile> files = new ArrayList<>();
+        for (int i = current.lowerBound(start); i < current.size && current.names[i].startsWith(start); i++) {
+            if (predicate == null || predicate.test(current.names[i], current.sizes[i], current.lastModified[i])) {
+                files.add(current.file(i));
+            }
+        }
+        return files;
+    }
+
+
+    /**
+     * List the indexed files whose name is in the range
+     *
+     * @param fromFilename the min name of file,inclusive
+     * @param toFilename   the max name of file,exclusive,null means unbounded
+     */
+    public List<MinIOFile> listFilesBetween(String fromFilename, String toFilename) {
+        Columns current = columns;
+        int end = toFilename == null ? current.size : current.lowerBound(toFilename);
+        List<MinIOFile> files = new ArrayList<>();
+        for (int i = current.lowerBound(fromFilename); i < end; i++) {
+            files.add(current.file(i));
+        }
+        return files;
+    }
+
+
+    /**
+     * List the indexed files with filtering,every file is created before testing so the {@link EntryPredicate}
+     * is preferred for large index
+     *
+     * @param predicate {@link Predicate}
+     */
+    public List<MinIOFile> listFiles(Predicate<MinIOFile> predicate) {
+        Columns current = columns;
+        List<MinIOFile> files = new ArrayList<>();
+        for (int i = 0; i < current.size; i++) {
+            MinIOFile file = current.file(i);
+            if (predicate.test(file)) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+
+    /**
+     * Count the indexed files by prefix with filtering on the columns
+     *
+     * @param prefix    prefix of the file name
+     * @param predicate {@link EntryPredicate},null means all files
+     */
+    public long count(String prefix, EntryPredicate predicate) {
+        Columns current = columns;
+        String start = prefix == null ? "" : prefix;
+        long count = 0;
+        for (int i = current.lowerBound(start); i < current.size && current.names[i].startsWith(start); i++) {
+            if (predicate == null || predicate.test(current.names[i], current.sizes[i], current.lastModified[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Record a created or modified file,it is visible after the next flush
+     *
+     * @param filename     the name of file
+     * @param size         the size of file
+     * @param lastModified the modified time of file,the unit is millisecond
+     * @param etag         the etag of file
+     */
+    public void put(String filename, long size, long lastModified, String etag) {
+        if (isIndexed(filename)) {
+            addChange(filename, new Change(size, lastModified, etag, false));
+        }
+    }
+
+
+    /**
+     * Record a removed file,it is visible after the next flush
+     *
+     * @param filename the name of file
+     */
+    public void remove(String filename) {
+        if (isIndexed(filename)) {
+            addChange(filename, new Change(0, 0, null, true));
+        }
+    }
+
+
+    /**
+     * Merge the received changes into the index
+     */
+    public synchronized void flush() {
+        TreeMap<String, Change> changes;
+        synchronized (pendingLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            changes = pending;
+            pending = new TreeMap<>();
+        }
+        Columns current = columns;
+        Columns merged = new Columns(current.size + changes.size());
+        int i = 0;
+        for (Map.Entry<String, Change> entry : changes.entrySet()) {
+            String name = entry.getKey();
+            int position = Arrays.binarySearch(current.names, i, current.size, name);
+            int end = position < 0 ? -position - 1 : position;
+            merged.addAll(current, i, end);
+            i = position < 0 ? end : end + 1;
+            Change change = entry.getValue();
+            if (!change.removed) {
+                merged.add(name, change.size, change.lastModified, change.etag);
+            }
+        }
+        merged.addAll(current, i, current.size);
+        columns = merged;
+    }
+
+
+    /**
+     * List the whole prefix again and replace the index,the changes received meanwhile are merged afterwards
+     */
+    public synchronized void rescan() {
+        scanCount++;
+        Columns scanned = new Columns(Math.max(16, columns.size));
+        boolean sorted = true;
+        Iterator<MinIOFile> files = list(null);
+        while (files.hasNext()) {
+            MinIOFile file = files.next();
+            sorted &= scanned.size == 0 || scanned.names[scanned.size - 1].compareTo(file.getFilename()) < 0;
+            scanned.add(file.getFilename(), file.getSize(), toMillis(file), file.getEtag());
+        }
+        columns = sorted ? scanned : scanned.sorted();
+        lastScanTime = System.currentTimeMillis();
+        flush();
+    }
+
+
+    /**
+     * List the files after the last indexed name
+     */
+    public synchronized void deltaScan() {
+        Columns current = columns;
+        String startAfter = current.size == 0 ? null : current.names[current.size - 1];
+        Iterator<MinIOFile> files = list(startAfter);
+        while (files.hasNext()) {
+            MinIOFile file = files.next();
+            put(file.getFilename(), file.getSize(), toMillis(file), file.getEtag());
+        }
+        flush();
+    }
+
+
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        if (notifications != null) {
+            notifications.close();
+        }
+    }
+
+
+    private void rescanAfterConnect() {
+        if (closed) {
+            return;
+        }
+        long scannedBeforeConnect = scanCount;
+        scheduler.execute(() -> {
+            if (scanCount == scannedBeforeConnect) {
+                safely("rescan", this::rescan);
+            }
+        });
+    }
+
+
+    private Iterator<MinIOFile> list(String startAfter) {
+        ListObjectsArgs.Builder builder = ListObjectsArgs.builder().bucket(bucketName).recursive(true);
+        if (StringUtils.isNotEmpty(options.getPrefix())) {
+            builder.prefix(options.getPrefix());
+        }
+        if (startAfter != null) {
+            builder.startAfter(startAfter);
+        }
+        return new MinIOFileIterator(bucketName, minioClient.listObjects(builder.build()),
+                file -> !file.getFilename().endsWith("/"), null).onError(listingErrorListener);
+    }
+
+
+    private void apply(List<MinIOEvent> events) {
+        for (MinIOEvent event : events) {
+            if (event.getFilename() == null) {
+                continue;
+            }
+            if (event.isRemoved()) {
+                remove(event.getFilename());
+            } else if (event.isCreated()) {
+                long lastModified = event.getEventTime() == null
+                        ? System.currentTimeMillis() : event.getEventTime().toInstant().toEpochMilli();
+                put(event.getFilename(), event.getSize(), lastModified, event.getEtag());
+            }
+        }
+    }
+
+
+    private boolean isIndexed(String filename) {
+        return !filename.endsWith("/") && (options.getPrefix() == null || filename.startsWith(options.getPrefix()));
+    }
+
+
+    private void addChange(String filename, Change change) {
+        synchronized (pendingLock) {
+            pending.put(filename, change);
+        }
+    }
+
+
+    private void safeFlush() {
+        safely("flush", this::flush);
+    }
+
+
+    private void safely(String operation, Runnable runnable) {
+        if (closed) {
+            return;
+        }
+        try {
+            runnable.run();
+        } catch (RuntimeException e) {
+            logger.error("MinIO index {} of bucket:{} failed:{}", operation, bucketName, e.getMessage());
+        }
+    }
+
+
+    private static long toMillis(MinIOFile file) {
+        return file.getLastModified() == null ? 0 : file.getLastModified().toInstant().toEpochMilli();
+    }
+
+
+    /**
+     * Test an indexed file by the columns
+     */
+    @FunctionalInterface
+    public interface EntryPredicate {
+
+        /**
+         * Test the file
+         *
+         * @param filename     the name of file
+         * @param size         the size of file
+         * @param lastModified the modified time of file,the unit is millisecond
+         */
+        boolean test(String filename, long size, long lastModified);
+    }
+
+
+    private static final class Change {
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final String etag;
+
+        private final boolean removed;
+
+        private Change(long size, long lastModified, String etag, boolean removed) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.etag = etag;
+            this.removed = removed;
+        }
+    }
+
+
+    /**
+     * The sorted columns of files,they are never modified once published
+     */
+    private final class Columns {
+
+        private String[] names;
+
+        private long[] sizes;
+
+        private long[] lastModified;
+
+        private String[] etags;
+
+        private int size;
+
+        private Columns(int capacity) {
+            this.names = new String[capacity];
+            this.sizes = new long[capacity];
+            this.lastModified = new long[capacity];
+            this.etags = new String[capacity];
+        }
+
+        private void add(String name, long fileSize, long modified, String etag) {
+            if (size == names.length) {
+                int capacity = Math.max(16, size * 2);
+                names = Arrays.copyOf(names, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+                lastModified = Arrays.copyOf(lastModified, capacity);
+                etags = Arrays.copyOf(etags, capacity);
+            }
+            names[size] = name;
+            sizes[size] = fileSize;
+            lastModified[size] = modified;
+            etags[size] = etag;
+            size++;
+        }
+
+        private void add(Columns source, int index) {
+            add(source.names[index], source.sizes[index], source.lastModified[index], source.etags[index]);
+        }
+
+        /**
+         * Append the files of source in the index range,the capacity must be enough
+         */
+        private void addAll(Columns source, int from, int to) {
+            int length = to - from;
+            System.arraycopy(source.names, from, names, size, length);
+            System.arraycopy(source.sizes, from, sizes, size, length);
+            System.arraycopy(source.lastModified, from, lastModified, size, length);
+            System.arraycopy(source.etags, from, etags, size, length);
+            size += length;
+        }
+
+        /**
+         * The index of the first name not less than the key
+         */
+        private int lowerBound(String key) {
+            int index = Arrays.binarySearch(names, 0, size, key);
+            return index < 0 ? -index - 1 : index;
+        }
+
+        private Columns sorted() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (left, right) -> names[left].compareTo(names[right]));
+            Columns sorted = new Columns(size);
+            for (int i = 0; i < size; i++) {
+                if (sorted.size == 0 || !sorted.names[sorted.size - 1].equals(names[order[i]])) {
+                    sorted.add(this, order[i]);
+                }
+            }
+            return sorted;
+        }
+
+        private MinIOFile file(int index) {
+            String name = names[index];
+            MinIOFile file = MinIOFile.withUriResolver(name, bucketName,
+                    Instant.ofEpochMilli(lastModified[index]).atZone(ZoneOffset.UTC), sizes[index],
+                    urlResolver == null ? null : () -> urlResolver.apply(bucketName, name));
+            file.setEtag(etags[index]);
+            return file;
+        }
+    }
+
+}
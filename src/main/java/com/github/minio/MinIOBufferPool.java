@@ -0,0 +1,64 @@
+package com.github.minio;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MinIOBufferPool
+ *
+ * A bounded pool of equal sized byte arrays,the arrays are allocated lazily and the caller blocks when
+ * all of them are in use
+ *
+ * @author echils
+ */
+class MinIOBufferPool {
+
+    private final int bufferSize;
+
+    private final int capacity;
+
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    private final LinkedBlockingQueue<byte[]> buffers = new LinkedBlockingQueue<>();
+
+    MinIOBufferPool(int bufferSize, int capacity) {
+        if (bufferSize < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Buffer size and capacity must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.capacity = capacity;
+    }
+
+
+    /**
+     * Take a buffer,wait if all buffers are in use
+     */
+    byte[] acquire() throws InterruptedException {
+        byte[] buffer = buffers.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        while (true) {
+            int current = allocated.get();
+            if (current >= capacity) {
+                return buffers.take();
+            }
+            if (allocated.compareAndSet(current, current + 1)) {
+                return new byte[bufferSize];
+            }
+        }
+    }
+
+
+    /**
+     * Give the buffer back to the pool
+     *
+     * @param buffer the buffer taken from this pool
+     */
+    void release(byte[] buffer) {
+        if (buffer != null && buffer.length == bufferSize) {
+            buffers.offer(buffer);
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.github.minio;
 
 import io.minio.MinioClient;
+import okhttp3.OkHttpClient;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +21,9 @@ public class MinIODefaultConnectionFactory implements IMinIOConnectionFactory {
     @Autowired
     private MinIOProperties minIOProperties;
 
+    @Autowired(required = false)
+    private MinIOHttpTransport minIOHttpTransport;
+
     @Override
     public MinioClient getConnection() {
 
@@ -29,18 +33,16 @@ public class MinIODefaultConnectionFactory implements IMinIOConnectionFactory {
         try {
             if (StringUtils.isNotBlank(minIOProperties.getUrl())) {
                 logger.info("MinIO connect with url:{}", minIOProperties.getUrl());
-                minioClient = MinioClient.builder().endpoint(minIOProperties.getUrl())
-                        .credentials(username, password).build();
+                minioClient = new MinIOExtendedClient(minIOProperties.getUrl(), null,
+                        username, password, minIOProperties.getRegion(), null, httpClient());
             } else {
                 String host = minIOProperties.getHost();
                 int port = minIOProperties.getPort();
                 boolean secure = minIOProperties.isSecure();
                 logger.info("MinIO connect with host:{},port:{},secure:{}", host, port, secure);
-                minioClient = MinioClient.builder().endpoint(host, port, secure)
-                        .credentials(username, password).build();
+                minioClient = new MinIOExtendedClient(host, port, username, password,
+                        minIOProperties.getRegion(), secure, httpClient());
             }
-            minioClient.setTimeout(minIOProperties.getConnectTimeout(), minIOProperties.getWriteTimeout(),
-                    minIOProperties.getReadTimeout());
             check(minioClient);
         } catch (Exception e) {
             logger.error("MinIO connect failed:{}", minIOProperties.toString(), e);
@@ -49,6 +51,16 @@ public class MinIODefaultConnectionFactory implements IMinIOConnectionFactory {
         return minioClient;
     }
 
+    /**
+     * The shared http client of MinIO,the timeouts are configured on it
+     */
+    private OkHttpClient httpClient() {
+        if (minIOHttpTransport == null) {
+            minIOHttpTransport = new MinIOHttpTransport(MinIOHttpClientFactory.create(minIOProperties));
+        }
+        return minIOHttpTransport.getHttpClient();
+    }
+
     /**
      * Test the connection of MinIO
      *
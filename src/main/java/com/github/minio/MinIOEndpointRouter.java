@@ -0,0 +1,314 @@
+package com.github.minio;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MinIOEndpointRouter
+ *
+ * Spread the requests over the nodes of a distributed server.The request is signed for the logical host
+ * and only its url is rewritten to the chosen node,the signed host header is kept so every node accepts it.
+ * The node is chosen by the least outstanding requests or by the latency weighted by the outstanding requests,
+ * a node is evicted after consecutive failures or a failed health probe and readmitted by a passed probe,
+ * or after a cool-down if the probe is disabled.When every node is evicted all of them are used
+ *
+ * @author echils
+ */
+public class MinIOEndpointRouter implements Interceptor, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MinIOEndpointRouter.class);
+
+    /**
+     * The weight of the latest latency sample in the moving average
+     */
+    private static final double LATENCY_DECAY = 0.2;
+
+    private final List<Endpoint> endpoints;
+
+    private final Policy policy;
+
+    private final int failureThreshold;
+
+    private final long coolDown;
+
+    private final long healthCheckInterval;
+
+    private final long healthCheckTimeout;
+
+    private final String healthCheckPath;
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private ScheduledThreadPoolExecutor scheduler;
+
+    private OkHttpClient probeClient;
+
+    public MinIOEndpointRouter(MinIOProperties minIOProperties) {
+        List<Endpoint> nodes = new ArrayList<>();
+        for (String endpoint : minIOProperties.getEndpoints()) {
+            HttpUrl url = HttpUrl.parse(endpoint);
+            if (url == null) {
+                throw new MinIOExecuteException("Invalid endpoint:" + endpoint);
+            }
+            nodes.add(new Endpoint(url));
+        }
+        this.endpoints = Collections.unmodifiableList(nodes);
+        this.policy = minIOProperties.getRoutingPolicy();
+        this.failureThreshold = Math.max(1, minIOProperties.getEndpointFailureThreshold());
+        this.coolDown = TimeUnit.MILLISECONDS.toNanos(Math.max(0, minIOProperties.getEndpointCoolDown()));
+        this.healthCheckInterval = minIOProperties.getHealthCheckInterval();
+        this.healthCheckTimeout = minIOProperties.getHealthCheckTimeout();
+        this.healthCheckPath = minIOProperties.getHealthCheckPath();
+    }
+
+
+    /**
+     * Start probing the health of nodes with the transport of client,the probes are not routed
+     *
+     * @param client the http client which the router is added to
+     */
+    void bind(OkHttpClient client) {
+        if (healthCheckInterval <= 0 || scheduler != null) {
+            return;
+        }
+        OkHttpClient.Builder builder = client.newBuilder()
+                .callTimeout(healthCheckTimeout, TimeUnit.MILLISECONDS);
+        builder.interceptors().clear();
+        builder.networkInterceptors().clear();
+        this.probeClient = builder.build();
+        this.scheduler = new ScheduledThreadPoolExecutor(1, new MinIOThreadFactory("minio-health"));
+        scheduler.scheduleWithFixedDelay(this::probe, healthCheckInterval, healthCheckInterval, TimeUnit.MILLISECONDS);
+    }
+
+
+    /**
+     * The nodes and their statistics
+     */
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Endpoint endpoint = choose();
+        HttpUrl url = request.url().newBuilder()
+                .scheme(endpoint.url.scheme()).host(endpoint.url.host()).port(endpoint.url.port()).build();
+        endpoint.outstanding.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            Response response = chain.proceed(request.newBuilder().url(url).build());
+            int code = response.code();
+            endpoint.record(System.nanoTime() - start, code != 502 && code != 503 && code != 504, failureThreshold);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            if (!chain.call().isCanceled()) {
+                endpoint.record(System.nanoTime() - start, false, failureThreshold);
+            }
+            throw e;
+        } finally {
+            endpoint.outstanding.decrementAndGet();
+        }
+    }
+
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Choose the node of request,the scanning starts from a rotating position so the ties are spread
+     */
+    private Endpoint choose() {
+        int size = endpoints.size();
+        if (size == 1) {
+            return endpoints.get(0);
+        }
+        boolean anyHealthy = false;
+        for (Endpoint endpoint : endpoints) {
+            if (!endpoint.healthy && healthCheckInterval <= 0) {
+                endpoint.coolDown(coolDown, failureThreshold);
+            }
+            anyHealthy |= endpoint.healthy;
+        }
+        int offset = (cursor.getAndIncrement() & Integer.MAX_VALUE) % size;
+        Endpoint chosen = null;
+        double chosenScore = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Endpoint endpoint = endpoints.get((offset + i) % size);
+            if (anyHealthy && !endpoint.healthy) {
+                continue;
+            }
+            int outstanding = endpoint.outstanding.get();
+            double score = policy == Policy.LATENCY ? (endpoint.latency + 1) * (outstanding + 1) : outstanding;
+            if (score < chosenScore) {
+                chosen = endpoint;
+                chosenScore = score;
+            }
+        }
+        return chosen;
+    }
+
+
+    private void probe() {
+        for (Endpoint endpoint : endpoints) {
+            boolean live;
+            HttpUrl url = endpoint.url.newBuilder().encodedPath(healthCheckPath).build();
+            try (Response response = probeClient.newCall(new Request.Builder().url(url).get().build()).execute()) {
+                live = response.isSuccessful();
+            } catch (IOException | RuntimeException e) {
+                live = false;
+            }
+            if (live && !endpoint.healthy) {
+                logger.info("MinIO endpoint:{} is readmitted", endpoint.url);
+                endpoint.consecutiveFailures.set(0);
+            } else if (!live && endpoint.healthy) {
+                endpoint.evictedAt = System.nanoTime();
+                logger.warn("MinIO endpoint:{} is evicted by the failed health probe", endpoint.url);
+            }
+            endpoint.healthy = live;
+        }
+    }
+
+
+    /**
+     * The policy of choosing node
+     */
+    public enum Policy {
+
+        /**
+         * Choose the node with the least outstanding requests
+         */
+        LEAST_REQUESTS,
+
+        /**
+         * Choose the node with the least moving average latency multiplied by the outstanding requests
+         */
+        LATENCY
+    }
+
+
+    /**
+     * A node and its statistics
+     */
+    public static class Endpoint {
+
+        private final HttpUrl url;
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        private final AtomicLong requestCount = new AtomicLong();
+
+        private final AtomicLong failureCount = new AtomicLong();
+
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+        private volatile double latency;
+
+        private volatile boolean healthy = true;
+
+        /**
+         * The time of eviction,the unit is nanosecond
+         */
+        private volatile long evictedAt;
+
+        private Endpoint(HttpUrl url) {
+            this.url = url;
+        }
+
+        private void record(long elapsed, boolean success, int failureThreshold) {
+            requestCount.incrementAndGet();
+            double sample = elapsed / 1e6;
+            synchronized (this) {
+                latency = latency == 0 ? sample : latency + LATENCY_DECAY * (sample - latency);
+            }
+            if (success) {
+                consecutiveFailures.set(0);
+                return;
+            }
+            failureCount.incrementAndGet();
+            if (consecutiveFailures.incrementAndGet() >= failureThreshold && healthy) {
+                evictedAt = System.nanoTime();
+                healthy = false;
+                logger.warn("MinIO endpoint:{} is evicted after {} consecutive failures", url, failureThreshold);
+            }
+        }
+
+        /**
+         * Readmit the evicted node on trial after the cool-down,so the next failed request evicts it again
+         *
+         * @param coolDown         the time of cool-down,the unit is nanosecond
+         * @param failureThreshold the number of consecutive failures which evicts the node
+         */
+        private synchronized void coolDown(long coolDown, int failureThreshold) {
+            if (!healthy && System.nanoTime() - evictedAt >= coolDown) {
+                consecutiveFailures.set(failureThreshold - 1);
+                healthy = true;
+                logger.info("MinIO endpoint:{} is readmitted after the cool-down", url);
+            }
+        }
+
+        /**
+         * The url of node
+         */
+        public String getUrl() {
+            return url.toString();
+        }
+
+        /**
+         * The number of requests in flight
+         */
+        public int getOutstanding() {
+            return outstanding.get();
+        }
+
+        /**
+         * The number of requests sent
+         */
+        public long getRequestCount() {
+            return requestCount.get();
+        }
+
+        /**
+         * The number of failed requests
+         */
+        public long getFailureCount() {
+            return failureCount.get();
+        }
+
+        /**
+         * The moving average of the time to the response headers,the unit is millisecond
+         */
+        public double getLatency() {
+            return latency;
+        }
+
+        /**
+         * Whether the node receives requests
+         */
+        public boolean isHealthy() {
+            return healthy;
+        }
+    }
+
+}
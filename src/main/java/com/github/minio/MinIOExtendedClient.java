@@ -0,0 +1,238 @@
+package com.github.minio;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.escape.Escaper;
+import com.google.common.net.PercentEscaper;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.http.Method;
+import io.minio.messages.Part;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.RandomAccessFile;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MinIOExtendedClient
+ *
+ * Expose the low level multipart api of {@link MinioClient},so the parts can be uploaded concurrently,
+ * the content of local file is streamed from the file channel instead of being buffered in memory
+ * and the byte ranges of large object are copied on the server as parts,the object urls are presigned locally
+ *
+ * @author echils
+ */
+public class MinIOExtendedClient extends MinioClient {
+
+    /**
+     * Encode the copy source like the object path,only the unreserved characters and the separator are kept
+     */
+    private static final Escaper COPY_SOURCE_ESCAPER = new PercentEscaper("-_.~/", false);
+
+    /**
+     * The object name to presign when resolving the region of bucket,the object is never read
+     */
+    private static final String REGION_OBJECT = "region";
+
+    private final MinIOPresigner presigner;
+
+    public MinIOExtendedClient(String endpoint, Integer port, String accessKey, String secretKey,
+                               Boolean secure, OkHttpClient httpClient) {
+        this(endpoint, port, accessKey, secretKey, null, secure, httpClient);
+    }
+
+    @SuppressWarnings("deprecation")
+    public MinIOExtendedClient(String endpoint, Integer port, String accessKey, String secretKey, String region,
+                               Boolean secure, OkHttpClient httpClient) {
+        super(endpoint, port, accessKey, secretKey, StringUtils.trimToNull(region), secure, httpClient);
+        this.presigner = StringUtils.isAnyBlank(accessKey, secretKey) ? null
+                : new MinIOPresigner(baseUrl(endpoint, port, secure), accessKey, secretKey, region, this::bucketRegion);
+    }
+
+
+    /**
+     * Resolve the region of bucket by presigning with the client,which looks up the location of bucket
+     * and caches it,the region is taken from the credential scope of url
+     *
+     * @param bucketName the name of bucket
+     */
+    private String bucketRegion(String bucketName) {
+        try {
+            String url = getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder().method(Method.GET)
+                    .bucket(bucketName).object(REGION_OBJECT).expiry(1, TimeUnit.MINUTES).build());
+            HttpUrl httpUrl = HttpUrl.parse(url);
+            String credential = httpUrl == null ? null : httpUrl.queryParameter("X-Amz-Credential");
+            String[] scope = credential == null ? new String[0] : credential.split("/");
+            if (scope.length < 5) {
+                throw new IllegalStateException("The credential scope of url is invalid:" + credential);
+            }
+            return scope[scope.length - 3];
+        } catch (Exception e) {
+            throw new MinIOExecuteException(e);
+        }
+    }
+
+
+    /**
+     * The presigner of object url,null if the client is anonymous
+     */
+    public MinIOPresigner getPresigner() {
+        return presigner;
+    }
+
+
+    private static HttpUrl baseUrl(String endpoint, Integer port, Boolean secure) {
+        HttpUrl url = HttpUrl.parse(endpoint);
+        if (url == null) {
+            url = new HttpUrl.Builder().scheme(Boolean.TRUE.equals(secure) ? "https" : "http").host(endpoint).build();
+        }
+        if (port != null && port > 0) {
+            url = url.newBuilder().port(port).build();
+        }
+        return url;
+    }
+
+
+    /**
+     * Initiate a multipart upload
+     *
+     * @param bucketName  the name of bucket
+     * @param objectName  the name of object
+     * @param contentType the content type of object
+     * @return the id of upload
+     */
+    public String initiateMultipartUpload(String bucketName, String objectName, String contentType) throws Exception {
+        Multimap<String, String> headers = HashMultimap.create();
+        if (StringUtils.isNotBlank(contentType)) {
+            headers.put("Content-Type", contentType);
+        }
+        return createMultipartUpload(bucketName, null, objectName, headers, null);
+    }
+
+
+    /**
+     * Initiate a multipart upload with the headers of object,such as the content type and user metadata
+     *
+     * @param bucketName the name of bucket
+     * @param objectName the name of object
+     * @param headers    the headers of object
+     * @return the id of upload
+     */
+    public String initiateMultipartUpload(String bucketName, String objectName,
+                                          Multimap<String, String> headers) throws Exception {
+        return createMultipartUpload(bucketName, null, objectName, headers, null);
+    }
+
+
+    /**
+     * Upload a part of multipart upload
+     *
+     * @param bucketName the name of bucket
+     * @param objectName the name of object
+     * @param uploadId   the id of upload
+     * @param partNumber the number of part,start with 1
+     * @param data       the data of part
+     * @param length     the length of data
+     * @return the etag of part
+     */
+    public String uploadPart(String bucketName, String objectName, String uploadId,
+                             int partNumber, byte[] data, int length) throws Exception {
+        return uploadPart(bucketName, objectName, data, length, uploadId, partNumber, null);
+    }
+
+
+    /**
+     * Upload a part of multipart upload from the local file
+     *
+     * @param bucketName the name of bucket
+     * @param objectName the name of object
+     * @param uploadId   the id of upload
+     * @param partNumber the number of part,start with 1
+     * @param file       the local file,the file pointer is moved by the upload
+     * @param position   the position of part in the file
+     * @param length     the length of part
+     * @return the etag of part
+     */
+    public String uploadPart(String bucketName, String objectName, String uploadId, int partNumber,
+                             RandomAccessFile file, long position, int length) throws Exception {
+        file.seek(position);
+        return uploadPart(bucketName, objectName, file, length, uploadId, partNumber, null);
+    }
+
+
+    /**
+     * Copy a byte range of the source object on the server as a part of multipart upload
+     *
+     * @param bucketName       the name of bucket
+     * @param objectName       the name of object
+     * @param uploadId         the id of upload
+     * @param partNumber       the number of part,start with 1
+     * @param sourceBucketName the name of source bucket
+     * @param sourceObjectName the name of source object
+     * @param sourceEtag       the etag the source must still have,null means any
+     * @param position         the position of part in the source object
+     * @param length           the length of part
+     * @return the etag of part
+     */
+    public String uploadPartCopy(String bucketName, String objectName, String uploadId, int partNumber,
+                                 String sourceBucketName, String sourceObjectName, String sourceEtag,
+                                 long position, long length) throws Exception {
+        Multimap<String, String> headers = HashMultimap.create();
+        headers.put("x-amz-copy-source", COPY_SOURCE_ESCAPER.escape(sourceBucketName + "/" + sourceObjectName));
+        headers.put("x-amz-copy-source-range", "bytes=" + position + "-" + (position + length - 1));
+        if (StringUtils.isNotBlank(sourceEtag)) {
+            headers.put("x-amz-copy-source-if-match", sourceEtag.startsWith("\"") ? sourceEtag : "\"" + sourceEtag + "\"");
+        }
+        return uploadPartCopy(bucketName, objectName, uploadId, partNumber, headers);
+    }
+
+
+    /**
+     * Upload the local file with a single request
+     *
+     * @param bucketName  the name of bucket
+     * @param objectName  the name of object
+     * @param file        the local file,the file pointer is moved by the upload
+     * @param length      the length of file
+     * @param contentType the content type of object
+     */
+    public ObjectWriteResponse putFile(String bucketName, String objectName, RandomAccessFile file,
+                                       int length, String contentType) throws Exception {
+        Multimap<String, String> headers = HashMultimap.create();
+        if (StringUtils.isNotBlank(contentType)) {
+            headers.put("Content-Type", contentType);
+        }
+        file.seek(0);
+        return putObject(bucketName, null, objectName, file, length, headers, null);
+    }
+
+
+    /**
+     * Complete the multipart upload
+     *
+     * @param bucketName the name of bucket
+     * @param objectName the name of object
+     * @param uploadId   the id of upload
+     * @param parts      the uploaded parts ordered by part number
+     */
+    public ObjectWriteResponse completeUpload(String bucketName, String objectName, String uploadId,
+                                              Part[] parts) throws Exception {
+        return completeMultipartUpload(bucketName, null, objectName, uploadId, parts, null, null);
+    }
+
+
+    /**
+     * Abort the multipart upload and discard the uploaded parts
+     *
+     * @param bucketName the name of bucket
+     * @param objectName the name of object
+     * @param uploadId   the id of upload
+     */
+    public void abortUpload(String bucketName, String objectName, String uploadId) throws Exception {
+        abortMultipartUpload(bucketName, objectName, uploadId);
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.github.minio;
+
+import com.github.minio.schema.MinIOFile;
+import io.minio.Result;
+import io.minio.messages.Item;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * MinIOFileIterator
+ *
+ * Lazily convert the listing result to {@link MinIOFile},the next listing page is only requested when
+ * the current page is exhausted and the url of file is only resolved when it is read unless it is eager
+ *
+ * @author echils
+ */
+class MinIOFileIterator implements Iterator<MinIOFile> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MinIOFileIterator.class);
+
+    private final String bucketName;
+
+    private final Iterator<Result<Item>> delegate;
+
+    private final Predicate<MinIOFile> predicate;
+
+    private final BiFunction<String, String, URI> urlResolver;
+
+    private final boolean eagerUrl;
+
+    private Consumer<Exception> errorListener;
+
+    private MinIOFile next;
+
+    MinIOFileIterator(String bucketName, Iterable<Result<Item>> results, Predicate<MinIOFile> predicate,
+                      BiFunction<String, String, URI> urlResolver) {
+        this(bucketName, results, predicate, urlResolver, false);
+    }
+
+    MinIOFileIterator(String bucketName, Iterable<Result<Item>> results, Predicate<MinIOFile> predicate,
+                      BiFunction<String, String, URI> urlResolver, boolean eagerUrl) {
+        this.bucketName = bucketName;
+        this.delegate = results.iterator();
+        this.predicate = predicate;
+        this.urlResolver = urlResolver;
+        this.eagerUrl = eagerUrl;
+    }
+
+    /**
+     * Run the listener with the error of listing before it is thrown,such as evicting the cached bucket state
+     *
+     * @param errorListener the listener of error
+     */
+    MinIOFileIterator onError(Consumer<Exception> errorListener) {
+        this.errorListener = errorListener;
+        return this;
+    }
+
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && delegate.hasNext()) {
+            MinIOFile minIOFile = convert(delegate.next());
+            if (predicate == null || predicate.test(minIOFile)) {
+                if (eagerUrl) {
+                    minIOFile.getUri();
+                }
+                next = minIOFile;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public MinIOFile next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        MinIOFile minIOFile = next;
+        next = null;
+        return minIOFile;
+    }
+
+    private MinIOFile convert(Result<Item> itemResult) {
+        try {
+            Item item = itemResult.get();
+            String objectName = URLDecoder.decode(item.objectName(), "utf-8");
+            MinIOFile minIOFile = MinIOFile.withUriResolver(objectName, bucketName, item.lastModified(), item.size(),
+                    urlResolver == null ? null : () -> urlResolver.apply(bucketName, objectName));
+            if (item.etag() != null) {
+                minIOFile.setEtag(item.etag().replace("\"", ""));
+            }
+            minIOFile.setUserMetadata(item.userMetadata());
+            return minIOFile;
+        } catch (Exception e) {
+            logger.error("MinIO list files of bucket:{} failed:{}", bucketName, e.getMessage());
+            if (errorListener != null) {
+                errorListener.accept(e);
+            }
+            throw new MinIOExecuteException(e);
+        }
+    }
+
+}
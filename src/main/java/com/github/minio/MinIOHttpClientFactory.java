@@ -0,0 +1,158 @@
+package com.github.minio;
+
+import com.github.minio.metrics.MinIOOperationContext;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MinIOHttpClientFactory
+ *
+ * Build the http transport shared by all MinIO clients,one connection pool and one dispatcher are
+ * used for the endpoint so the concurrent requests reuse the kept-alive sockets,the transient failures
+ * are retried and the slow reads are hedged by {@link MinIOResilienceInterceptor},the requests are spread
+ * over the endpoints of distributed server by {@link MinIOEndpointRouter}
+ *
+ * @author echils
+ */
+public final class MinIOHttpClientFactory {
+
+    private MinIOHttpClientFactory() {
+    }
+
+
+    /**
+     * Create the http client with the pool,dispatcher,protocol and timeout settings of properties
+     *
+     * @param minIOProperties {@link MinIOProperties}
+     */
+    public static OkHttpClient create(MinIOProperties minIOProperties) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(Math.max(1, minIOProperties.getMaxRequests()));
+        dispatcher.setMaxRequestsPerHost(Math.max(1, minIOProperties.getMaxRequestsPerHost()));
+        MinIOResilienceInterceptor resilienceInterceptor = new MinIOResilienceInterceptor(minIOProperties);
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(Math.max(0, minIOProperties.getMaxIdleConnections()),
+                        minIOProperties.getKeepAliveDuration(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .protocols(minIOProperties.isHttp2() ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                        : Collections.singletonList(Protocol.HTTP_1_1))
+                .socketFactory(new TcpSocketFactory(minIOProperties.isTcpNoDelay()))
+                .addInterceptor(resilienceInterceptor)
+                .addInterceptor(MinIOOperationContext.interceptor())
+                .connectTimeout(minIOProperties.getConnectTimeout(), TimeUnit.MILLISECONDS)
+                .writeTimeout(minIOProperties.getWriteTimeout(), TimeUnit.MILLISECONDS)
+                .readTimeout(minIOProperties.getReadTimeout(), TimeUnit.MILLISECONDS);
+        MinIOEndpointRouter router = null;
+        if (!minIOProperties.getEndpoints().isEmpty()) {
+            router = new MinIOEndpointRouter(minIOProperties);
+            builder.addInterceptor(router);
+        }
+        OkHttpClient client = builder.build();
+        resilienceInterceptor.bind(client);
+        if (router != null) {
+            router.bind(client);
+        }
+        return client;
+    }
+
+
+    /**
+     * Add the endpoint router to the client which has not one
+     *
+     * @param client          the http client
+     * @param minIOProperties {@link MinIOProperties}
+     */
+    public static OkHttpClient withRouter(OkHttpClient client, MinIOProperties minIOProperties) {
+        if (getRouter(client).isPresent()) {
+            return client;
+        }
+        MinIOEndpointRouter router = new MinIOEndpointRouter(minIOProperties);
+        OkHttpClient routed = client.newBuilder().addInterceptor(router).build();
+        router.bind(routed);
+        return routed;
+    }
+
+
+    /**
+     * Get the endpoint router of the client,it holds the statistics of endpoints
+     *
+     * @param client the http client
+     */
+    public static Optional<MinIOEndpointRouter> getRouter(OkHttpClient client) {
+        return client.interceptors().stream()
+                .filter(MinIOEndpointRouter.class::isInstance)
+                .map(MinIOEndpointRouter.class::cast)
+                .findFirst();
+    }
+
+
+    /**
+     * Get the resilience interceptor of the client created by the factory,it holds the retry and hedge counters
+     *
+     * @param client the http client
+     */
+    public static Optional<MinIOResilienceInterceptor> getResilience(OkHttpClient client) {
+        return client.interceptors().stream()
+                .filter(MinIOResilienceInterceptor.class::isInstance)
+                .map(MinIOResilienceInterceptor.class::cast)
+                .findFirst();
+    }
+
+
+    /**
+     * Apply the socket options to every socket created by the default socket factory,
+     * the TLS socket of https is layered over the socket so the options apply to it too
+     */
+    private static class TcpSocketFactory extends SocketFactory {
+
+        private final SocketFactory delegate = SocketFactory.getDefault();
+
+        private final boolean tcpNoDelay;
+
+        private TcpSocketFactory(boolean tcpNoDelay) {
+            this.tcpNoDelay = tcpNoDelay;
+        }
+
+        @Override
+        public Socket createSocket() throws IOException {
+            return configure(delegate.createSocket());
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            return configure(delegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+            return configure(delegate.createSocket(host, port, localHost, localPort));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) throws IOException {
+            return configure(delegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+            return configure(delegate.createSocket(address, port, localAddress, localPort));
+        }
+
+        private Socket configure(Socket socket) throws IOException {
+            socket.setTcpNoDelay(tcpNoDelay);
+            return socket;
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.github.minio;
+
+import okhttp3.OkHttpClient;
+import org.springframework.util.Assert;
+
+/**
+ * MinIOHttpTransport
+ *
+ * The holder of the http client shared by the MinIO clients,the client is published through this type
+ * so it never takes part in the injection of {@link OkHttpClient} by type of the application.
+ * Define a bean of this type to supply a custom client
+ *
+ * @author echils
+ */
+public class MinIOHttpTransport {
+
+    private final OkHttpClient httpClient;
+
+    public MinIOHttpTransport(OkHttpClient httpClient) {
+        Assert.notNull(httpClient, "Http client is not allowed empty");
+        this.httpClient = httpClient;
+    }
+
+
+    /**
+     * The shared http client
+     */
+    public OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+}
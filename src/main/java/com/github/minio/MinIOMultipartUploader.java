@@ -0,0 +1,746 @@
+package com.github.minio;
+
+import com.github.minio.metrics.MinIOOperationContext;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.io.BaseEncoding;
+import io.minio.ComposeObjectArgs;
+import io.minio.ComposeSource;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
+import io.minio.MinioClient;
+import io.minio.ObjectStat;
+import io.minio.ObjectWriteResponse;
+import io.minio.PutObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.messages.Part;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.RandomAccessFile;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * MinIOMultipartUploader
+ *
+ * Split the file or stream into parts and upload the parts concurrently,the failed part is retried
+ * individually and the upload is completed only when all parts succeed,otherwise it is aborted.
+ * The large object is copied the same way with its byte ranges copied on the server as parts
+ *
+ * @author echils
+ */
+public class MinIOMultipartUploader {
+
+    private static final Logger logger = LoggerFactory.getLogger(MinIOMultipartUploader.class);
+
+    /**
+     * The min size of part except the last one
+     */
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    /**
+     * The max number of parts of one upload
+     */
+    private static final int MAX_PARTS = 10000;
+
+    /**
+     * The max size of single copy and of one copied part
+     */
+    private static final long MAX_COPY_SIZE = 5L * 1024 * 1024 * 1024;
+
+    /**
+     * The headers of source object kept by the multipart copy besides the user metadata
+     */
+    private static final String[] COPY_HEADERS = {"Content-Type", "Content-Encoding", "Content-Disposition",
+            "Content-Language", "Cache-Control", "Expires"};
+
+    /**
+     * The user metadata recording the etag of source on the object copied as parts,whose own etag differs
+     */
+    private static final String SOURCE_ETAG_HEADER = "x-amz-meta-minio-source-etag";
+
+    /**
+     * The base wait time before retry a failed part,the unit is millisecond
+     */
+    private static final long RETRY_BACKOFF = 200;
+
+    private final MinioClient minioClient;
+
+    private final int partSize;
+
+    private final int retries;
+
+    private final long copyThreshold;
+
+    private final long copyPartSize;
+
+    private final MinIOBufferPool bufferPool;
+
+    private final ThreadPoolExecutor executor;
+
+    public MinIOMultipartUploader(MinioClient minioClient, MinIOProperties minIOProperties) {
+        this.minioClient = minioClient;
+        this.partSize = Math.max(MIN_PART_SIZE, minIOProperties.getMultipartPartSize());
+        this.retries = Math.max(0, minIOProperties.getMultipartRetries());
+        this.copyThreshold = Math.min(MAX_COPY_SIZE, minIOProperties.getMultipartCopyThreshold());
+        this.copyPartSize = Math.min(MAX_COPY_SIZE, Math.max(MIN_PART_SIZE, minIOProperties.getMultipartCopyPartSize()));
+        int parallelism = Math.max(1, minIOProperties.getMultipartParallelism());
+        this.bufferPool = new MinIOBufferPool(partSize, Math.max(parallelism, minIOProperties.getMultipartBufferPoolSize()));
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new MinIOThreadFactory("minio-multipart"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+
+    /**
+     * Upload the stream of unknown length,the stream is read part by part and the reading waits when all
+     * buffers are in flight,a stream shorter than one part is uploaded with a single request
+     *
+     * @param bucketName  the name of bucket
+     * @param objectName  the name of object
+     * @param inputStream the stream of upload file
+     * @param contentType the content type of upload file
+     */
+    public ObjectWriteResponse upload(String bucketName, String objectName, InputStream inputStream,
+                                      String contentType) throws Exception {
+        byte[] buffer = bufferPool.acquire();
+        int length;
+        try {
+            length = readFully(inputStream, buffer);
+        } catch (Exception e) {
+            bufferPool.release(buffer);
+            throw e;
+        }
+
+        if (length < buffer.length) {
+            try {
+                return putObject(bucketName, objectName, new ByteArrayInputStream(buffer, 0, length), length, -1, contentType);
+            } finally {
+                bufferPool.release(buffer);
+            }
+        }
+
+        if (!(minioClient instanceof MinIOExtendedClient)) {
+            try {
+                InputStream stream = new SequenceInputStream(new ByteArrayInputStream(buffer, 0, length), inputStream);
+                return putObject(bucketName, objectName, stream, -1, partSize, contentType);
+            } finally {
+                bufferPool.release(buffer);
+            }
+        }
+
+        MinIOExtendedClient client = (MinIOExtendedClient) minioClient;
+        String uploadId;
+        try {
+            uploadId = client.initiateMultipartUpload(bucketName, objectName, contentType);
+        } catch (Exception e) {
+            bufferPool.release(buffer);
+            throw e;
+        }
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<Part>> futures = new ArrayList<>();
+        try {
+            while (length > 0) {
+                if (failed.get()) {
+                    break;
+                }
+                int partNumber = futures.size() + 1;
+                if (partNumber > MAX_PARTS) {
+                    throw new MinIOExecuteException("The stream exceeds the max number of parts:" + MAX_PARTS);
+                }
+                byte[] data = buffer;
+                int dataLength = length;
+                buffer = null;
+                futures.add(submitPart(data, () -> uploadPart(bucketName, objectName, partNumber, failed, () ->
+                        client.uploadPart(bucketName, objectName, uploadId, partNumber, data, dataLength))));
+                buffer = bufferPool.acquire();
+                length = readFully(inputStream, buffer);
+            }
+            return complete(client, bucketName, objectName, uploadId, futures);
+        } catch (Exception e) {
+            abort(client, bucketName, objectName, uploadId, futures);
+            throw e;
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+
+    /**
+     * Upload the local file,the exact length is taken from the file and the content is streamed from the
+     * file channel by the client,so no part is buffered in memory.Every part reads the file with its own
+     * handle so the parts can be uploaded in any order,the handles are closed when the part is done
+     *
+     * @param bucketName  the name of bucket
+     * @param objectName  the name of object
+     * @param file        the file of upload
+     * @param contentType the content type of upload file
+     */
+    public ObjectWriteResponse upload(String bucketName, String objectName, File file, String contentType) throws Exception {
+        long size = file.length();
+        long partLength = partLength(size);
+        if (!(minioClient instanceof MinIOExtendedClient)) {
+            // the part size is always given so the client does not pick its own smaller one,
+            // the file within one part is uploaded with a single request
+            try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+                return putObject(bucketName, objectName, inputStream, size,
+                        size <= MIN_PART_SIZE ? -1 : partLength, contentType);
+            }
+        }
+
+        MinIOExtendedClient client = (MinIOExtendedClient) minioClient;
+        if (size <= partSize) {
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+                return client.putFile(bucketName, objectName, randomAccessFile, (int) size, contentType);
+            }
+        }
+
+        int partCount = (int) ((size + partLength - 1) / partLength);
+        String uploadId = client.initiateMultipartUpload(bucketName, objectName, contentType);
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<Part>> futures = new ArrayList<>(partCount);
+        try {
+            for (int i = 0; i < partCount && !failed.get(); i++) {
+                int partNumber = i + 1;
+                long position = i * partLength;
+                int length = (int) Math.min(partLength, size - position);
+                futures.add(executor.submit(MinIOOperationContext.wrap(() -> {
+                    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+                        return uploadPart(bucketName, objectName, partNumber, failed, () -> client.uploadPart(
+                                bucketName, objectName, uploadId, partNumber, randomAccessFile, position, length));
+                    }
+                })));
+            }
+            return complete(client, bucketName, objectName, uploadId, futures);
+        } catch (Exception e) {
+            abort(client, bucketName, objectName, uploadId, futures);
+            throw e;
+        }
+    }
+
+
+    /**
+     * Copy the object on the server,the object larger than the copy threshold is copied as parts concurrently
+     * and every part requires the source to keep its etag,so a source changed during the copy fails the copy
+     * instead of mixing contents.The content type and user metadata of source are kept and the etag of source
+     * is recorded in the metadata of the object copied as parts.Without {@link MinIOExtendedClient} the object
+     * larger than the max size of single copy is composed by the client from its ranges
+     *
+     * @param sourceBucketName the name of source bucket
+     * @param sourceObjectName the name of source object
+     * @param size             the size of source object
+     * @param bucketName       the name of target bucket
+     * @param objectName       the name of target object
+     */
+    public ObjectWriteResponse copy(String sourceBucketName, String sourceObjectName, long size,
+                                    String bucketName, String objectName) throws Exception {
+        boolean extended = minioClient instanceof MinIOExtendedClient;
+        if (size <= copyThreshold || !extended && size <= MAX_COPY_SIZE) {
+            return copyObject(sourceBucketName, sourceObjectName, bucketName, objectName);
+        }
+        ObjectStat source = minioClient.statObject(StatObjectArgs.builder()
+                .bucket(sourceBucketName).object(sourceObjectName).build());
+        size = source.length();
+        if (size <= copyThreshold || !extended && size <= MAX_COPY_SIZE) {
+            return copyObject(sourceBucketName, sourceObjectName, bucketName, objectName);
+        }
+        if (!extended) {
+            return minioClient.composeObject(ComposeObjectArgs.builder().bucket(bucketName).object(objectName)
+                    .headers(copyHeaders(source))
+                    .sources(Collections.singletonList(ComposeSource.builder().bucket(sourceBucketName)
+                            .object(sourceObjectName).matchETag(source.etag()).build())).build());
+        }
+
+        MinIOExtendedClient client = (MinIOExtendedClient) minioClient;
+        long partLength = Math.max(copyPartSize, (size + MAX_PARTS - 1) / MAX_PARTS);
+        int partCount = (int) ((size + partLength - 1) / partLength);
+        String uploadId = client.initiateMultipartUpload(bucketName, objectName, copyHeaders(source));
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<Part>> futures = new ArrayList<>(partCount);
+        try {
+            for (int i = 0; i < partCount && !failed.get(); i++) {
+                int partNumber = i + 1;
+                long position = i * partLength;
+                long length = Math.min(partLength, size - position);
+                futures.add(executor.submit(MinIOOperationContext.wrap(() ->
+                        uploadPart(bucketName, objectName, partNumber, failed, () -> client.uploadPartCopy(
+                                bucketName, objectName, uploadId, partNumber, sourceBucketName, sourceObjectName,
+                                source.etag(), position, length)))));
+            }
+            return complete(client, bucketName, objectName, uploadId, futures);
+        } catch (Exception e) {
+            abort(client, bucketName, objectName, uploadId, futures);
+            throw e;
+        }
+    }
+
+
+    /**
+     * Compute the etag the local file gets when it is uploaded by this uploader,the etag of single request
+     * upload is the md5 of file and the etag of multipart upload is the md5 of part md5s with the part count
+     *
+     * @param file the local file
+     */
+    public String computeEtag(File file) throws Exception {
+        long size = file.length();
+        MessageDigest digest = MessageDigest.getInstance("MD5");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (size <= partSize) {
+                update(digest, channel, buffer, size);
+                return BaseEncoding.base16().lowerCase().encode(digest.digest());
+            }
+            long partLength = partLength(size);
+            MessageDigest partsDigest = MessageDigest.getInstance("MD5");
+            int partCount = 0;
+            for (long position = 0; position < size; position += partLength) {
+                update(digest, channel, buffer, Math.min(partLength, size - position));
+                partsDigest.update(digest.digest());
+                partCount++;
+            }
+            return BaseEncoding.base16().lowerCase().encode(partsDigest.digest()) + "-" + partCount;
+        }
+    }
+
+
+    /**
+     * The part size of uploading the local file of size,it grows beyond the configured part size
+     * only when the file would have more parts than allowed
+     *
+     * @param size the size of file
+     */
+    private long partLength(long size) {
+        return Math.max(partSize, (size + MAX_PARTS - 1) / MAX_PARTS);
+    }
+
+
+    /**
+     * Open a session which accepts the content piece by piece,every full part is uploaded in the
+     * background and the content shorter than one part is uploaded with a single request on complete
+     *
+     * @param bucketName  the name of bucket
+     * @param objectName  the name of object
+     * @param contentType the content type of upload file
+     */
+    public Session openSession(String bucketName, String objectName, String contentType) {
+        return new Session(bucketName, objectName, contentType);
+    }
+
+
+    /**
+     * Upload the part from the pooled buffer on the executor.The buffer is given back by the task when it ends,
+     * or by the cancelling if the task is cancelled before it starts,so an aborted upload never leaks buffers
+     *
+     * @param data   the buffer of part taken from the pool
+     * @param upload upload the part
+     */
+    private Future<Part> submitPart(byte[] data, Callable<Part> upload) {
+        AtomicBoolean claimed = new AtomicBoolean();
+        FutureTask<Part> task = new FutureTask<Part>(MinIOOperationContext.wrap(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                throw new CancellationException();
+            }
+            try {
+                return upload.call();
+            } finally {
+                bufferPool.release(data);
+            }
+        })) {
+            @Override
+            protected void done() {
+                if (isCancelled() && claimed.compareAndSet(false, true)) {
+                    bufferPool.release(data);
+                }
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            bufferPool.release(data);
+            throw e;
+        }
+        return task;
+    }
+
+
+    private ObjectWriteResponse putObject(String bucketName, String objectName, InputStream inputStream,
+                                          long objectSize, long partSize, String contentType) throws Exception {
+        PutObjectArgs.Builder builder = PutObjectArgs.builder().bucket(bucketName).object(objectName)
+                .stream(inputStream, objectSize, partSize);
+        if (StringUtils.isNotBlank(contentType)) {
+            builder.contentType(contentType);
+        }
+        return minioClient.putObject(builder.build());
+    }
+
+
+    private Part uploadPart(String bucketName, String objectName, int partNumber, AtomicBoolean failed,
+                            Callable<String> upload) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            if (failed.get()) {
+                throw new CancellationException("The upload has failed");
+            }
+            try {
+                return new Part(partNumber, upload.call());
+            } catch (Exception e) {
+                if (attempt >= retries) {
+                    failed.set(true);
+                    throw e;
+                }
+                logger.warn("MinIO upload part:{} of bucket name:{} and object:{} failed,retry:{}",
+                        partNumber, bucketName, objectName, attempt + 1);
+                Thread.sleep(RETRY_BACKOFF << attempt);
+            }
+        }
+    }
+
+
+    private ObjectWriteResponse copyObject(String sourceBucketName, String sourceObjectName,
+                                           String bucketName, String objectName) throws Exception {
+        return minioClient.copyObject(CopyObjectArgs.builder().bucket(bucketName).object(objectName)
+                .source(CopySource.builder().bucket(sourceBucketName).object(sourceObjectName).build()).build());
+    }
+
+
+    private static Multimap<String, String> copyHeaders(ObjectStat source) {
+        Multimap<String, String> headers = HashMultimap.create();
+        for (Map.Entry<String, List<String>> header : source.httpHeaders().entrySet()) {
+            String name = header.getKey().toLowerCase(Locale.ROOT);
+            if (name.startsWith("x-amz-meta-")) {
+                headers.putAll(name, header.getValue());
+            }
+        }
+        for (String name : COPY_HEADERS) {
+            List<String> values = source.httpHeaders().get(name.toLowerCase(Locale.ROOT));
+            if (values != null) {
+                headers.putAll(name, values);
+            }
+        }
+        headers.removeAll(SOURCE_ETAG_HEADER);
+        if (source.etag() != null) {
+            headers.put(SOURCE_ETAG_HEADER, source.etag().replace("\"", ""));
+        }
+        return headers;
+    }
+
+
+    /**
+     * The etag of source recorded on the object copied as parts,null if the object was not copied as parts
+     *
+     * @param target the metadata of copied object
+     */
+    static String sourceEtag(ObjectStat target) {
+        List<String> values = target.httpHeaders().get(SOURCE_ETAG_HEADER);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+
+    private ObjectWriteResponse complete(MinIOExtendedClient client, String bucketName, String objectName,
+                                         String uploadId, List<Future<Part>> futures) throws Exception {
+        Part[] parts = new Part[futures.size()];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                parts[i] = futures.get(i).get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : new MinIOExecuteException(cause);
+            }
+        }
+        return client.completeUpload(bucketName, objectName, uploadId, parts);
+    }
+
+
+    private void abort(MinIOExtendedClient client, String bucketName, String objectName,
+                       String uploadId, List<Future<Part>> futures) {
+        futures.forEach(future -> future.cancel(true));
+        try {
+            client.abortUpload(bucketName, objectName, uploadId);
+        } catch (Exception e) {
+            logger.warn("MinIO abort upload:{} of bucket name:{} and object:{} failed:{}",
+                    uploadId, bucketName, objectName, e.getMessage());
+        }
+    }
+
+
+    /**
+     * The upload whose content is pushed by the caller,the content must be written by one thread at a time
+     * but the session may be aborted from any thread,the abort waits for the write in progress and stops it
+     * at the next part.Without {@link MinIOExtendedClient} the content beyond one part is piped into a single
+     * streaming put of unknown size,so the parts are uploaded one by one by the client
+     */
+    public class Session {
+
+        private final String bucketName;
+
+        private final String objectName;
+
+        private final String contentType;
+
+        private final AtomicBoolean failed = new AtomicBoolean();
+
+        private final List<Future<Part>> futures = new ArrayList<>();
+
+        private String uploadId;
+
+        private volatile PipedInputStream pipeSource;
+
+        private PipedOutputStream pipe;
+
+        private Future<ObjectWriteResponse> streaming;
+
+        private byte[] buffer;
+
+        private int length;
+
+        private boolean closed;
+
+        private volatile boolean aborted;
+
+        private Session(String bucketName, String objectName, String contentType) {
+            this.bucketName = bucketName;
+            this.objectName = objectName;
+            this.contentType = contentType;
+        }
+
+
+        /**
+         * Append the content,the writing waits when all buffers are in flight
+         *
+         * @param content the content of upload file
+         */
+        public synchronized void write(ByteBuffer content) throws Exception {
+            if (closed) {
+                throw new IllegalStateException("The session is closed");
+            }
+            while (content.hasRemaining()) {
+                if (aborted) {
+                    throw new IllegalStateException("The session is aborted");
+                }
+                if (failed.get()) {
+                    rethrowFailure();
+                }
+                if (buffer == null) {
+                    buffer = bufferPool.acquire();
+                    length = 0;
+                }
+                int count = Math.min(content.remaining(), buffer.length - length);
+                content.get(buffer, length, count);
+                length += count;
+                if (length == buffer.length) {
+                    flush();
+                }
+            }
+        }
+
+
+        /**
+         * Upload the remaining content and complete the upload
+         */
+        public synchronized ObjectWriteResponse complete() throws Exception {
+            if (closed) {
+                throw new IllegalStateException("The session is closed");
+            }
+            closed = true;
+            try {
+                if (pipe != null) {
+                    if (buffer != null && length > 0) {
+                        pipe.write(buffer, 0, length);
+                    }
+                    pipe.close();
+                    return awaitStreaming();
+                }
+                if (uploadId == null) {
+                    int size = buffer == null ? 0 : length;
+                    byte[] data = buffer == null ? new byte[0] : buffer;
+                    return putObject(bucketName, objectName, new ByteArrayInputStream(data, 0, size), size, -1, contentType);
+                }
+                if (buffer != null && length > 0) {
+                    flush();
+                }
+                return MinIOMultipartUploader.this.complete((MinIOExtendedClient) minioClient, bucketName, objectName, uploadId, futures);
+            } catch (Exception e) {
+                abortUpload();
+                throw e;
+            } finally {
+                bufferPool.release(buffer);
+                buffer = null;
+            }
+        }
+
+
+        /**
+         * Abort the upload and discard the uploaded parts,the buffer is given back after the write in progress
+         */
+        public void abort() {
+            aborted = true;
+            // a write blocked on the full pipe holds the session,closing the read side fails it
+            closePipeSource();
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                abortUpload();
+                bufferPool.release(buffer);
+                buffer = null;
+            }
+        }
+
+
+        private void flush() throws Exception {
+            if (!(minioClient instanceof MinIOExtendedClient)) {
+                pipe();
+                return;
+            }
+            MinIOExtendedClient client = (MinIOExtendedClient) minioClient;
+            if (uploadId == null) {
+                uploadId = client.initiateMultipartUpload(bucketName, objectName, contentType);
+            }
+            int partNumber = futures.size() + 1;
+            if (partNumber > MAX_PARTS) {
+                throw new MinIOExecuteException("The content exceeds the max number of parts:" + MAX_PARTS);
+            }
+            byte[] data = buffer;
+            int dataLength = length;
+            String currentUploadId = uploadId;
+            buffer = null;
+            futures.add(submitPart(data, () -> uploadPart(bucketName, objectName, partNumber, failed, () ->
+                    client.uploadPart(bucketName, objectName, currentUploadId, partNumber, data, dataLength))));
+        }
+
+
+        /**
+         * Write the full buffer into the streaming put,the put is started by the first full buffer
+         */
+        private void pipe() throws Exception {
+            if (pipe == null) {
+                pipeSource = new PipedInputStream(partSize);
+                pipe = new PipedOutputStream(pipeSource);
+                InputStream source = pipeSource;
+                streaming = executor.submit(MinIOOperationContext.wrap(() -> {
+                    try (InputStream inputStream = source) {
+                        return putObject(bucketName, objectName, inputStream, -1, partSize, contentType);
+                    }
+                }));
+            }
+            try {
+                pipe.write(buffer, 0, length);
+            } catch (IOException e) {
+                // the put has stopped reading,report its failure instead of the broken pipe
+                if (streaming.isDone()) {
+                    awaitStreaming();
+                }
+                throw e;
+            }
+            length = 0;
+        }
+
+
+        private ObjectWriteResponse awaitStreaming() throws Exception {
+            try {
+                return streaming.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : new MinIOExecuteException(cause);
+            }
+        }
+
+
+        private void rethrowFailure() throws Exception {
+            for (Future<Part> future : futures) {
+                if (future.isDone()) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        throw cause instanceof Exception ? (Exception) cause : new MinIOExecuteException(cause);
+                    }
+                }
+            }
+            throw new MinIOExecuteException("The upload of part failed");
+        }
+
+
+        private void abortUpload() {
+            if (streaming != null) {
+                // closing the read side fails the put on its next read,so the partial content is never stored
+                closePipeSource();
+                streaming.cancel(true);
+            }
+            if (uploadId != null) {
+                MinIOMultipartUploader.this.abort((MinIOExtendedClient) minioClient, bucketName, objectName, uploadId, futures);
+            }
+        }
+
+
+        private void closePipeSource() {
+            PipedInputStream source = pipeSource;
+            if (source != null) {
+                try {
+                    source.close();
+                } catch (IOException e) {
+                    logger.debug("MinIO close the pipe of object:{} failed:{}", objectName, e.getMessage());
+                }
+            }
+        }
+    }
+
+
+    private static void update(MessageDigest digest, FileChannel channel, ByteBuffer buffer, long length) throws IOException {
+        while (length > 0) {
+            buffer.clear();
+            if (length < buffer.capacity()) {
+                buffer.limit((int) length);
+            }
+            int read = channel.read(buffer);
+            if (read < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            buffer.flip();
+            digest.update(buffer);
+            length -= read;
+        }
+    }
+
+
+    private static int readFully(InputStream inputStream, byte[] buffer) throws IOException {
+        int length = 0;
+        while (length < buffer.length) {
+            int read = inputStream.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        return length;
+    }
+
+}
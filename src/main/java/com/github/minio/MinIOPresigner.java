@@ -0,0 +1,356 @@
+package com.github.minio;
+
+import okhttp3.HttpUrl;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * MinIOPresigner
+ *
+ * Presign the GET url of object locally with AWS signature V4,no request is sent to the server.The signing
+ * key is derived once a day and the digest and mac instances are reused by every thread,so presigning
+ * one url only hashes the canonical request and signs the string to sign.The urls are path style.
+ * Without a configured region the region of every bucket is resolved once by the resolver and cached
+ *
+ * @author echils
+ */
+public class MinIOPresigner {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    private static final String SERVICE = "s3";
+
+    private static final String DEFAULT_REGION = "us-east-1";
+
+    /**
+     * The max expiry of presigned url,the unit is second
+     */
+    private static final long MAX_EXPIRY = TimeUnit.DAYS.toSeconds(7);
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<Signer> SIGNERS = ThreadLocal.withInitial(Signer::new);
+
+    /**
+     * The url prefix before the bucket name,such as http://localhost:9000/
+     */
+    private final String urlPrefix;
+
+    private final String host;
+
+    private final String accessKey;
+
+    private final byte[] secretKey;
+
+    /**
+     * The configured region,null if the region of bucket is resolved
+     */
+    private final String region;
+
+    private final Function<String, String> regionResolver;
+
+    private final ConcurrentMap<String, String> bucketRegions = new ConcurrentHashMap<>();
+
+    /**
+     * The signing keys of regions,the key of every region is derived once a day
+     */
+    private final ConcurrentMap<String, SigningKey> signingKeys = new ConcurrentHashMap<>();
+
+    /**
+     * The current time in milliseconds
+     */
+    private final LongSupplier clock;
+
+    private volatile Timestamp timestamp;
+
+    public MinIOPresigner(HttpUrl baseUrl, String accessKey, String secretKey, String region) {
+        this(baseUrl, accessKey, secretKey, region, null);
+    }
+
+    /**
+     * @param baseUrl        the url of server
+     * @param accessKey      the access key
+     * @param secretKey      the secret key
+     * @param region         the region of server,the region of bucket is resolved if it is blank
+     * @param regionResolver resolve the region of bucket,us-east-1 is used if it is null and the region is blank
+     */
+    public MinIOPresigner(HttpUrl baseUrl, String accessKey, String secretKey, String region,
+                          Function<String, String> regionResolver) {
+        this(baseUrl, accessKey, secretKey, region, regionResolver, System::currentTimeMillis);
+    }
+
+    MinIOPresigner(HttpUrl baseUrl, String accessKey, String secretKey, String region,
+                   Function<String, String> regionResolver, LongSupplier clock) {
+        if (baseUrl == null || accessKey == null || secretKey == null) {
+            throw new IllegalArgumentException("The url and credentials are required by presigning");
+        }
+        boolean defaultPort = baseUrl.port() == HttpUrl.defaultPort(baseUrl.scheme());
+        String hostName = baseUrl.host().contains(":") ? "[" + baseUrl.host() + "]" : baseUrl.host();
+        this.host = defaultPort ? hostName : hostName + ":" + baseUrl.port();
+        this.urlPrefix = baseUrl.scheme() + "://" + host + "/";
+        this.accessKey = accessKey;
+        this.secretKey = ("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8);
+        boolean blank = region == null || region.trim().isEmpty();
+        this.region = !blank ? region.trim() : regionResolver == null ? DEFAULT_REGION : null;
+        this.regionResolver = regionResolver;
+        this.clock = clock;
+    }
+
+
+    /**
+     * Presign the GET url of object
+     *
+     * @param bucketName the name of bucket
+     * @param objectName the name of object
+     * @param duration   the time of expire,the max value is 7 days
+     * @param timeUnit   the time of unit
+     */
+    public URI presign(String bucketName, String objectName, long duration, TimeUnit timeUnit) {
+        return presign(bucketName, Collections.singletonList(objectName), duration, timeUnit).get(0);
+    }
+
+
+    /**
+     * Presign the GET urls of objects,all urls share the timestamp and credential scope
+     *
+     * @param bucketName  the name of bucket
+     * @param objectNames the name of objects
+     * @param duration    the time of expire,the max value is 7 days
+     * @param timeUnit    the time of unit
+     */
+    public List<URI> presign(String bucketName, List<String> objectNames, long duration, TimeUnit timeUnit) {
+        long expiry = timeUnit.toSeconds(duration);
+        if (expiry < 1 || expiry > MAX_EXPIRY) {
+            throw new IllegalArgumentException("The expiry must be between 1 second and 7 days");
+        }
+        Timestamp now = timestamp();
+        String bucketRegion = region != null ? region : bucketRegions.computeIfAbsent(bucketName, regionResolver);
+        SigningKey key = signingKey(bucketRegion, now.date);
+        String scope = now.date + "/" + bucketRegion + "/" + SERVICE + "/aws4_request";
+        String query = "X-Amz-Algorithm=" + ALGORITHM
+                + "&X-Amz-Credential=" + encode(accessKey + "/" + scope, false)
+                + "&X-Amz-Date=" + now.time
+                + "&X-Amz-Expires=" + expiry
+                + "&X-Amz-SignedHeaders=host";
+        String canonicalSuffix = "\n" + query + "\nhost:" + host + "\n\nhost\nUNSIGNED-PAYLOAD";
+        String signPrefix = ALGORITHM + "\n" + now.time + "\n" + scope + "\n";
+        String bucketPath = "/" + encode(bucketName, true) + "/";
+
+        Signer signer = SIGNERS.get();
+        List<URI> urls = new ArrayList<>(objectNames.size());
+        for (String objectName : objectNames) {
+            String path = bucketPath + encode(objectName, true);
+            StringBuilder builder = signer.builder;
+            builder.setLength(0);
+            builder.append("GET\n").append(path).append(canonicalSuffix);
+            String canonicalHash = signer.sha256Hex(builder);
+            builder.setLength(0);
+            builder.append(signPrefix).append(canonicalHash);
+            String signature = signer.hmacHex(key, builder);
+            builder.setLength(0);
+            builder.append(urlPrefix, 0, urlPrefix.length() - 1).append(path).append('?').append(query)
+                    .append("&X-Amz-Signature=").append(signature);
+            urls.add(URI.create(builder.toString()));
+        }
+        return urls;
+    }
+
+
+    private Timestamp timestamp() {
+        long second = clock.getAsLong() / 1000;
+        Timestamp current = timestamp;
+        if (current == null || current.second != second) {
+            Instant instant = Instant.ofEpochSecond(second);
+            current = new Timestamp(second, DATE_FORMATTER.format(instant), TIME_FORMATTER.format(instant));
+            timestamp = current;
+        }
+        return current;
+    }
+
+
+    /**
+     * The signing key of the region and date,it is derived from the secret key once a day
+     *
+     * @param region the region of credential scope
+     * @param date   the date of credential scope
+     */
+    private SigningKey signingKey(String region, String date) {
+        SigningKey current = signingKeys.get(region);
+        if (current == null || !current.date.equals(date)) {
+            try {
+                byte[] key = hmac(secretKey, date);
+                key = hmac(key, region);
+                key = hmac(key, SERVICE);
+                key = hmac(key, "aws4_request");
+                current = new SigningKey(date, new SecretKeySpec(key, HMAC_SHA256));
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+            signingKeys.put(region, current);
+        }
+        return current;
+    }
+
+
+    private static byte[] hmac(byte[] key, String data) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_SHA256);
+        mac.init(new SecretKeySpec(key, HMAC_SHA256));
+        return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Percent encode the value,only the unreserved characters are kept and the separator is kept in path
+     *
+     * @param value the value
+     * @param path  whether the value is a path
+     */
+    static String encode(String value, boolean path) {
+        int length = value.length();
+        int i = 0;
+        while (i < length && isUnreserved(value.charAt(i), path)) {
+            i++;
+        }
+        if (i == length) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(length + 16).append(value, 0, i);
+        for (byte b : value.substring(i).getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if (c < 0x80 && isUnreserved(c, path)) {
+                builder.append(c);
+            } else {
+                builder.append('%').append(Character.toUpperCase(HEX[c >> 4])).append(Character.toUpperCase(HEX[c & 0xF]));
+            }
+        }
+        return builder.toString();
+    }
+
+
+    private static boolean isUnreserved(char c, boolean path) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.' || c == '~' || (path && c == '/');
+    }
+
+
+    private static final class Timestamp {
+
+        private final long second;
+
+        private final String date;
+
+        private final String time;
+
+        private Timestamp(long second, String date, String time) {
+            this.second = second;
+            this.date = date;
+            this.time = time;
+        }
+    }
+
+
+    private static final class SigningKey {
+
+        private final String date;
+
+        private final SecretKeySpec key;
+
+        private SigningKey(String date, SecretKeySpec key) {
+            this.date = date;
+            this.key = key;
+        }
+    }
+
+
+    /**
+     * The digest,mac and buffers of one thread
+     */
+    private static final class Signer {
+
+        private final MessageDigest digest;
+
+        private final Mac mac;
+
+        private final StringBuilder builder = new StringBuilder(512);
+
+        private final char[] hex = new char[64];
+
+        private byte[] bytes = new byte[512];
+
+        private SecretKeySpec macKey;
+
+        private Signer() {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+                this.mac = Mac.getInstance(HMAC_SHA256);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private String sha256Hex(CharSequence value) {
+            int length = toBytes(value);
+            digest.update(bytes, 0, length);
+            return hex(digest.digest());
+        }
+
+        private String hmacHex(SigningKey key, CharSequence value) {
+            try {
+                if (macKey != key.key) {
+                    mac.init(key.key);
+                    macKey = key.key;
+                }
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+            int length = toBytes(value);
+            mac.update(bytes, 0, length);
+            return hex(mac.doFinal());
+        }
+
+        /**
+         * Copy the value into the reused byte buffer,the value is ascii since every part of it is encoded
+         */
+        private int toBytes(CharSequence value) {
+            int length = value.length();
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) value.charAt(i);
+            }
+            return length;
+        }
+
+        private String hex(byte[] data) {
+            for (int i = 0; i < data.length; i++) {
+                hex[i * 2] = HEX[(data[i] >> 4) & 0xF];
+                hex[i * 2 + 1] = HEX[data[i] & 0xF];
+            }
+            return new String(hex, 0, data.length * 2);
+        }
+    }
+
+}
@@ -6,6 +6,10 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * MinIOProperties
  *
@@ -22,6 +26,13 @@ public class MinIOProperties implements InitializingBean {
      */
     private String url;
 
+    /**
+     * Connection URLs of the nodes of a distributed server,the requests are spread over them.
+     * The url is used as the host of signing and presigned urls if set,otherwise the first endpoint.
+     * Example: http://node1:9000,http://node2:9000
+     */
+    private List<String> endpoints = new ArrayList<>();
+
     /**
      * MinIO server host.
      */
@@ -42,6 +53,11 @@ public class MinIOProperties implements InitializingBean {
      */
     private String password;
 
+    /**
+     * MinIO server region,the region of bucket is looked up by request if blank and us-east-1 is used by presigning
+     */
+    private String region;
+
     /**
      * MinIO whether secure
      */
@@ -67,9 +83,300 @@ public class MinIOProperties implements InitializingBean {
      */
     private int readTimeout = 10000;
 
+    /**
+     * The max number of idle connections kept in the shared connection pool
+     */
+    private int maxIdleConnections = 32;
+
+    /**
+     * Define the time to keep an idle connection alive,the unit is millisecond
+     */
+    private long keepAliveDuration = 300000;
+
+    /**
+     * The max number of asynchronous requests executed concurrently by the http client
+     */
+    private int maxRequests = 128;
+
+    /**
+     * The max number of asynchronous requests executed concurrently for one host
+     */
+    private int maxRequestsPerHost = 64;
+
+    /**
+     * Whether negotiate HTTP/2 with the server,it takes effect over https only
+     */
+    private boolean http2 = false;
+
+    /**
+     * Whether disable the Nagle's algorithm of the connections
+     */
+    private boolean tcpNoDelay = true;
+
+    /**
+     * The max number of retries of an idempotent request failed with a connection error or a transient
+     * status such as 503 SlowDown,0 means no retry
+     */
+    private int retryMaxAttempts = 3;
+
+    /**
+     * Define the base wait time before a retry,the wait grows exponentially with full jitter,the unit is millisecond
+     */
+    private long retryBaseDelay = 100;
+
+    /**
+     * Define the max wait time before a retry,a request asked to retry later than it is not retried,
+     * the unit is millisecond
+     */
+    private long retryMaxDelay = 5000;
+
+    /**
+     * Define the max time of one request including its retries and hedges,the unit is millisecond
+     * and 0 means no limit
+     */
+    private long requestDeadline = 0;
+
+    /**
+     * Whether send a second GET or HEAD request when the first one is slower than the hedge percentile
+     */
+    private boolean hedgeEnabled = false;
+
+    /**
+     * The percentile of recent latencies after which the request is hedged
+     */
+    private double hedgePercentile = 0.95;
+
+    /**
+     * Define the min wait time before the request is hedged,the unit is millisecond
+     */
+    private long hedgeMinDelay = 50;
+
+    /**
+     * Whether run the asynchronous operations on virtual threads when the JDK supports them
+     */
+    private boolean asyncVirtualThreads = true;
+
+    /**
+     * The number of platform threads of asynchronous operations,used when virtual threads are unavailable
+     */
+    private int asyncThreads = 16;
+
+    /**
+     * The max number of asynchronous operations in flight
+     */
+    private int asyncMaxInFlight = 256;
+
+    /**
+     * The max number of asynchronous operations waiting for an in-flight slot,the operation beyond it fails at once
+     */
+    private int asyncMaxQueued = 1024;
+
+    /**
+     * The max number of buckets whose policy is cached
+     */
+    private int policyCacheSize = 1024;
+
+    /**
+     * Define the time to live of cached bucket policy,the unit is millisecond
+     */
+    private long policyCacheExpire = 60000;
+
+    /**
+     * The max number of buckets whose existence is cached
+     */
+    private int bucketCacheSize = 1024;
+
+    /**
+     * Define the time to live of cached existing bucket,the unit is millisecond
+     */
+    private long bucketCacheExpire = 300000;
+
+    /**
+     * Define the time to live of cached missing bucket,the unit is millisecond and 0 means not cached
+     */
+    private long bucketCacheNegativeExpire = 5000;
+
+    /**
+     * Define the part size of multipart upload,the unit is byte and the min value is 5MB
+     */
+    private int multipartPartSize = 16 * 1024 * 1024;
+
+    /**
+     * The max number of parts uploaded concurrently
+     */
+    private int multipartParallelism = 4;
+
+    /**
+     * The max number of part buffers,it bounds the memory used by the multipart upload
+     */
+    private int multipartBufferPoolSize = 8;
+
+    /**
+     * The number of retries of a failed part
+     */
+    private int multipartRetries = 3;
+
+    /**
+     * The object larger than the threshold is copied as parts concurrently,the max size of single copy
+     * is 5GB,the unit is byte
+     */
+    private long multipartCopyThreshold = 256L * 1024 * 1024;
+
+    /**
+     * Define the part size of multipart copy,the unit is byte and the min value is 5MB
+     */
+    private long multipartCopyPartSize = 64L * 1024 * 1024;
+
+    /**
+     * Define the range size of parallel download,the unit is byte
+     */
+    private long downloadRangeSize = 8 * 1024 * 1024;
+
+    /**
+     * The max number of ranges downloaded concurrently
+     */
+    private int downloadParallelism = 4;
+
+    /**
+     * The number of retries of a failed range
+     */
+    private int downloadRetries = 3;
+
+    /**
+     * The number of files deleted by one multi-object delete request,the max value is 1000
+     */
+    private int deleteBatchSize = 1000;
+
+    /**
+     * The max number of delete requests sent concurrently
+     */
+    private int deleteParallelism = 1;
+
+    /**
+     * Whether cache the downloaded files on local disk,the cached file is revalidated with the etag of object
+     */
+    private boolean diskCacheEnabled = false;
+
+    /**
+     * The directory of disk cache
+     */
+    private String diskCacheDirectory = System.getProperty("java.io.tmpdir") + File.separator + "minio-cache";
+
+    /**
+     * The max total size of cached files,the unit is byte
+     */
+    private long diskCacheCapacity = 512L * 1024 * 1024;
+
+    /**
+     * The max size of one cached file,the larger file is always downloaded from server,the unit is byte
+     */
+    private long diskCacheMaxObjectSize = 16L * 1024 * 1024;
+
+    /**
+     * Define the time a revalidated file is served without asking the server again,the unit is millisecond
+     * and 0 means revalidate on every download
+     */
+    private long diskCacheRevalidateInterval = 0;
+
+    /**
+     * The buckets whose files are cached,empty means all buckets
+     */
+    private List<String> diskCacheBuckets = new ArrayList<>();
+
+    /**
+     * Whether cache the small downloaded files in off-heap memory,the cached file is revalidated with the
+     * etag of object,the direct memory limit of JVM must allow the capacity
+     */
+    private boolean memoryCacheEnabled = false;
+
+    /**
+     * The max total size of off-heap memory used by the cache,the unit is byte
+     */
+    private long memoryCacheCapacity = 64L * 1024 * 1024;
+
+    /**
+     * The max size of one cached file,the max value is 1MB,the unit is byte
+     */
+    private int memoryCacheMaxObjectSize = 256 * 1024;
+
+    /**
+     * Define the time a revalidated file is served without asking the server again,the unit is millisecond
+     * and 0 means revalidate on every download
+     */
+    private long memoryCacheRevalidateInterval = 0;
+
+    /**
+     * Whether sniff the content type by the leading bytes of stream,it takes effect when the content type
+     * of stream upload is absent and the extension of upload path is unknown
+     */
+    private boolean contentTypeSniffing = false;
+
+    /**
+     * The number of threads which transfer the files of batch upload,download and copy
+     */
+    private int transferParallelism = 8;
+
+    /**
+     * Whether subscribe the methods annotated with MinIOEventListener to the bucket notifications
+     */
+    private boolean eventListenerEnabled = true;
+
+    /**
+     * The number of threads which handle the events of one subscription,the events of one file are always
+     * handled by the same thread
+     */
+    private int eventParallelism = 2;
+
+    /**
+     * The max number of events waiting to be handled of one subscription,receiving is blocked when it is full
+     */
+    private int eventQueueCapacity = 1024;
+
+    /**
+     * The max number of events handled at once
+     */
+    private int eventBatchSize = 100;
+
+    /**
+     * The policy of choosing the endpoint of request
+     */
+    private MinIOEndpointRouter.Policy routingPolicy = MinIOEndpointRouter.Policy.LEAST_REQUESTS;
+
+    /**
+     * The number of consecutive failed requests which evicts the endpoint until it passes the health probe
+     */
+    private int endpointFailureThreshold = 3;
+
+    /**
+     * The time after which an evicted endpoint is readmitted on trial when the health probe is disabled,
+     * one more failed request evicts it again,the unit is millisecond
+     */
+    private long endpointCoolDown = 30000;
+
+    /**
+     * The interval of probing the health of endpoints,0 means disabled,the unit is millisecond
+     */
+    private long healthCheckInterval = 5000;
+
+    /**
+     * Define the timeout of health probe,the unit is millisecond
+     */
+    private long healthCheckTimeout = 2000;
+
+    /**
+     * The path of health probe
+     */
+    private String healthCheckPath = "/minio/health/live";
+
+    /**
+     * Whether publish the percentile histogram of the operation timer,the histogram series are multiplied
+     * by the number of buckets
+     */
+    private boolean metricsPercentileHistogram = false;
+
     @Override
     public void afterPropertiesSet() {
-        if (StringUtils.isBlank(url) && StringUtils.isBlank(host)) {
+        if (StringUtils.isBlank(url) && StringUtils.isBlank(host) && endpoints.isEmpty()) {
             throw new MinIOExecuteException("Connection required parameters cannot be empty");
         }
         if (StringUtils.isBlank(username)) {
@@ -0,0 +1,301 @@
+package com.github.minio;
+
+import com.github.minio.metrics.MinIOOperationContext;
+import io.minio.GetObjectArgs;
+import io.minio.MinioClient;
+import io.minio.ObjectStat;
+import io.minio.StatObjectArgs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * MinIORangedDownloader
+ *
+ * Split the object into byte ranges,fetch the ranges concurrently and write every range directly into
+ * its position of the preallocated local file,the completed ranges are recorded in a progress file
+ * beside the local file so a failed download can be resumed
+ *
+ * @author echils
+ */
+public class MinIORangedDownloader {
+
+    private static final Logger logger = LoggerFactory.getLogger(MinIORangedDownloader.class);
+
+    /**
+     * The suffix of progress file
+     */
+    private static final String PROGRESS_SUFFIX = ".minio-progress";
+
+    /**
+     * The size of buffer used to copy a range into the file
+     */
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The base wait time before retry a failed range,the unit is millisecond
+     */
+    private static final long RETRY_BACKOFF = 200;
+
+    private final MinioClient minioClient;
+
+    private final long rangeSize;
+
+    private final int retries;
+
+    private final ThreadPoolExecutor executor;
+
+    public MinIORangedDownloader(MinioClient minioClient, MinIOProperties minIOProperties) {
+        this.minioClient = minioClient;
+        this.rangeSize = Math.max(COPY_BUFFER_SIZE, minIOProperties.getDownloadRangeSize());
+        this.retries = Math.max(0, minIOProperties.getDownloadRetries());
+        int parallelism = Math.max(1, minIOProperties.getDownloadParallelism());
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new MinIOThreadFactory("minio-download"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+
+    /**
+     * Download the object into the local file,resume from the progress file if it matches the object
+     *
+     * @param bucketName the name of bucket
+     * @param objectName the name of object
+     * @param file       the local file
+     */
+    public void download(String bucketName, String objectName, File file) throws Exception {
+        ObjectStat stat = minioClient.statObject(StatObjectArgs.builder().bucket(bucketName).object(objectName).build());
+        long size = stat.length();
+        int rangeCount = (int) ((size + rangeSize - 1) / rangeSize);
+        File progressFile = new File(file.getPath() + PROGRESS_SUFFIX);
+        Progress progress = file.isFile() ? Progress.load(progressFile, stat.etag(), size, rangeSize) : null;
+        if (progress == null) {
+            progress = new Progress(progressFile, stat.etag(), size, rangeSize);
+            Files.deleteIfExists(file.toPath());
+        } else {
+            logger.info("MinIO resume download of bucket name:{} and object:{} with {}/{} ranges completed",
+                    bucketName, objectName, progress.completed.cardinality(), rangeCount);
+        }
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(size);
+            FileChannel channel = randomAccessFile.getChannel();
+            List<Range> ranges = new ArrayList<>();
+            for (int i = 0; i < rangeCount; i++) {
+                if (!progress.isCompleted(i)) {
+                    long offset = i * rangeSize;
+                    ranges.add(new Range(i, offset, Math.min(rangeSize, size - offset)));
+                }
+            }
+            CountDownLatch finished = new CountDownLatch(ranges.size());
+            Progress current = progress;
+            for (Range range : ranges) {
+                range.future = executor.submit(MinIOOperationContext.wrap(() -> {
+                    if (!range.claimed.compareAndSet(false, true)) {
+                        return null;
+                    }
+                    try {
+                        downloadRange(bucketName, objectName, stat.etag(), channel, range.offset, range.length);
+                        channel.force(false);
+                        current.complete(range.index);
+                        return null;
+                    } finally {
+                        finished.countDown();
+                    }
+                }));
+            }
+            boolean completed = false;
+            try {
+                for (Range range : ranges) {
+                    range.future.get();
+                }
+                completed = true;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : new MinIOExecuteException(cause);
+            } finally {
+                if (!completed) {
+                    abort(ranges, finished);
+                }
+            }
+            channel.force(true);
+        }
+        Files.deleteIfExists(progressFile.toPath());
+    }
+
+
+    /**
+     * Stop the ranges of a failed download and wait until none of them uses the file,the range not started yet
+     * is claimed here so it never starts,the running range is interrupted
+     */
+    private void abort(List<Range> ranges, CountDownLatch finished) {
+        for (Range range : ranges) {
+            if (range.claimed.compareAndSet(false, true)) {
+                finished.countDown();
+            } else {
+                range.future.cancel(true);
+            }
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                finished.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private void downloadRange(String bucketName, String objectName, String etag, FileChannel channel,
+                               long offset, long length) throws Exception {
+        long written = 0;
+        for (int attempt = 0; ; attempt++) {
+            try (InputStream inputStream = minioClient.getObject(GetObjectArgs.builder().bucket(bucketName)
+                    .object(objectName).offset(offset + written).length(length - written).matchETag(etag).build())) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int read;
+                while (written < length && (read = inputStream.read(buffer)) > 0) {
+                    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                    while (byteBuffer.hasRemaining()) {
+                        channel.write(byteBuffer, offset + written + byteBuffer.position());
+                    }
+                    written += read;
+                }
+                if (written < length) {
+                    throw new IOException("Unexpected end of range at " + (offset + written));
+                }
+                return;
+            } catch (Exception e) {
+                if (attempt >= retries || e instanceof ClosedChannelException || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                logger.warn("MinIO download range:{}-{} of bucket name:{} and object:{} failed,retry:{}",
+                        offset + written, offset + length - 1, bucketName, objectName, attempt + 1);
+                Thread.sleep(RETRY_BACKOFF << attempt);
+            }
+        }
+    }
+
+
+    /**
+     * A byte range of the object,it is claimed by the task downloading it or by the abort of download
+     */
+    private static class Range {
+
+        private final int index;
+
+        private final long offset;
+
+        private final long length;
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Future<?> future;
+
+        private Range(int index, long offset, long length) {
+            this.index = index;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+
+    /**
+     * The completed ranges of a download
+     */
+    private static class Progress {
+
+        private final File file;
+
+        private final String etag;
+
+        private final long size;
+
+        private final long rangeSize;
+
+        private final BitSet completed;
+
+        private Progress(File file, String etag, long size, long rangeSize) {
+            this(file, etag, size, rangeSize, new BitSet());
+        }
+
+        private Progress(File file, String etag, long size, long rangeSize, BitSet completed) {
+            this.file = file;
+            this.etag = etag;
+            this.size = size;
+            this.rangeSize = rangeSize;
+            this.completed = completed;
+        }
+
+        /**
+         * Load the progress,return null if it is absent or belongs to another version of object
+         */
+        private static Progress load(File file, String etag, long size, long rangeSize) {
+            if (!file.isFile()) {
+                return null;
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+                if (!String.valueOf(etag).equals(properties.getProperty("etag"))
+                        || size != Long.parseLong(properties.getProperty("size"))
+                        || rangeSize != Long.parseLong(properties.getProperty("rangeSize"))) {
+                    return null;
+                }
+                byte[] bits = Base64.getDecoder().decode(properties.getProperty("completed", ""));
+                return new Progress(file, etag, size, rangeSize, BitSet.valueOf(bits));
+            } catch (Exception e) {
+                logger.warn("MinIO ignore the broken progress file:{}", file);
+                return null;
+            }
+        }
+
+        private synchronized boolean isCompleted(int index) {
+            return completed.get(index);
+        }
+
+        private synchronized void complete(int index) throws IOException {
+            completed.set(index);
+            Properties properties = new Properties();
+            properties.setProperty("etag", String.valueOf(etag));
+            properties.setProperty("size", String.valueOf(size));
+            properties.setProperty("rangeSize", String.valueOf(rangeSize));
+            properties.setProperty("completed", Base64.getEncoder().encodeToString(completed.toByteArray()));
+            File temp = new File(file.getPath() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+}
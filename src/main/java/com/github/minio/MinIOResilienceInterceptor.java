@@ -0,0 +1,521 @@
+package com.github.minio;
+
+import com.github.minio.metrics.MinIOMetrics;
+import com.github.minio.metrics.MinIOOperationContext;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MinIOResilienceInterceptor
+ *
+ * Retry the idempotent requests which fail with a transient error,the wait before a retry grows
+ * exponentially with full jitter and the Retry-After of server is honored.The GET and HEAD requests
+ * can be hedged,a second request is sent when the first one is slower than the configured percentile
+ * of recent latencies and the first response wins.The hedged requests are sent by a dispatcher of their
+ * own,carry the metrics sample of the operation and are canceled with the request.The retries,backoff,
+ * hedges and the timeouts of every attempt of one request are bounded by the request deadline
+ *
+ * @author echils
+ */
+public class MinIOResilienceInterceptor implements Interceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(MinIOResilienceInterceptor.class);
+
+    /**
+     * The number of recent latencies the hedge delay is computed from
+     */
+    private static final int LATENCY_WINDOW = 1024;
+
+    /**
+     * The min number of latencies before the requests are hedged
+     */
+    private static final int MIN_LATENCY_SAMPLES = 100;
+
+    /**
+     * The number of latencies recorded between two computations of the hedge delay
+     */
+    private static final int LATENCY_UPDATE_INTERVAL = 64;
+
+    /**
+     * The interval of checking whether the request waiting for the hedged requests is canceled,
+     * the unit is millisecond
+     */
+    private static final long CANCEL_CHECK_INTERVAL = 50;
+
+    private final int maxRetries;
+
+    private final long baseDelay;
+
+    private final long maxDelay;
+
+    private final long deadline;
+
+    private final boolean hedging;
+
+    private final double hedgePercentile;
+
+    private final long hedgeMinDelay;
+
+    private final LatencyWindow getLatency = new LatencyWindow();
+
+    private final LatencyWindow headLatency = new LatencyWindow();
+
+    private final AtomicLong retryCount = new AtomicLong();
+
+    private final AtomicLong hedgeCount = new AtomicLong();
+
+    private final AtomicLong hedgeWinCount = new AtomicLong();
+
+    private final AtomicLong deadlineExceededCount = new AtomicLong();
+
+    private volatile OkHttpClient client;
+
+    public MinIOResilienceInterceptor(MinIOProperties minIOProperties) {
+        this.maxRetries = Math.max(0, minIOProperties.getRetryMaxAttempts());
+        this.baseDelay = Math.max(1, minIOProperties.getRetryBaseDelay());
+        this.maxDelay = Math.max(baseDelay, minIOProperties.getRetryMaxDelay());
+        this.deadline = Math.max(0, minIOProperties.getRequestDeadline());
+        this.hedging = minIOProperties.isHedgeEnabled();
+        this.hedgePercentile = Math.min(1, Math.max(0, minIOProperties.getHedgePercentile()));
+        this.hedgeMinDelay = Math.max(1, minIOProperties.getHedgeMinDelay());
+    }
+
+
+    /**
+     * Bind the client which sends the hedged requests,the hedging takes effect after binding.The hedged
+     * requests are sent by a dispatcher of their own,so they are not queued behind the request limits of
+     * client,their number is bounded by the callers waiting for them
+     *
+     * @param client the client the interceptor is added to
+     */
+    void bind(OkHttpClient client) {
+        Dispatcher dispatcher = new Dispatcher(new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new MinIOThreadFactory("minio-hedge")));
+        dispatcher.setMaxRequests(Integer.MAX_VALUE);
+        dispatcher.setMaxRequestsPerHost(Integer.MAX_VALUE);
+        this.client = client.newBuilder().dispatcher(dispatcher).build();
+    }
+
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.tag(HedgedRequest.class) != null) {
+            return chain.proceed(request);
+        }
+        boolean retryable = isRetryable(request);
+        long deadlineNanos = deadline > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadline) : Long.MAX_VALUE;
+        for (int attempt = 0; ; attempt++) {
+            Response response;
+            try {
+                response = execute(chain, request, deadlineNanos);
+            } catch (IOException e) {
+                if (!retryable || attempt >= maxRetries || chain.call().isCanceled()
+                        || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                long delay = backoff(attempt);
+                if (!fitsDeadline(delay, deadlineNanos)) {
+                    deadlineExceededCount.incrementAndGet();
+                    throw e;
+                }
+                retry(request, e.toString(), attempt, delay);
+                continue;
+            }
+            if (!retryable || attempt >= maxRetries || !isTransient(response.code())) {
+                return response;
+            }
+            long delay = backoff(attempt);
+            long retryAfter = parseRetryAfter(response.header("Retry-After"));
+            if (retryAfter > maxDelay) {
+                return response;
+            }
+            delay = Math.max(delay, retryAfter);
+            if (!fitsDeadline(delay, deadlineNanos)) {
+                deadlineExceededCount.incrementAndGet();
+                return response;
+            }
+            response.close();
+            retry(request, "status " + response.code(), attempt, delay);
+        }
+    }
+
+
+    /**
+     * The number of retried requests
+     */
+    public long retryCount() {
+        return retryCount.get();
+    }
+
+
+    /**
+     * The number of hedged requests sent
+     */
+    public long hedgeCount() {
+        return hedgeCount.get();
+    }
+
+
+    /**
+     * The number of hedged requests which responded before the first request
+     */
+    public long hedgeWinCount() {
+        return hedgeWinCount.get();
+    }
+
+
+    /**
+     * The number of requests which gave up retrying or waiting because the deadline would be exceeded
+     */
+    public long deadlineExceededCount() {
+        return deadlineExceededCount.get();
+    }
+
+
+    private Response execute(Chain chain, Request request, long deadlineNanos) throws IOException {
+        LatencyWindow latency = hedging ? latencyOf(request) : null;
+        if (latency == null) {
+            return proceed(chain, request, deadlineNanos);
+        }
+        long threshold = latency.threshold();
+        OkHttpClient hedgeClient = client;
+        long start = System.nanoTime();
+        Response response = threshold < 0 || hedgeClient == null ? proceed(chain, request, deadlineNanos)
+                : hedge(chain, hedgeClient, request, Math.max(hedgeMinDelay, TimeUnit.NANOSECONDS.toMillis(threshold)), deadlineNanos);
+        latency.add(System.nanoTime() - start);
+        return response;
+    }
+
+
+    /**
+     * Send the request on the chain with the connect,write and read timeouts cut to the time left before
+     * the deadline
+     */
+    private Response proceed(Chain chain, Request request, long deadlineNanos) throws IOException {
+        long remaining = remaining(deadlineNanos);
+        if (remaining == Long.MAX_VALUE) {
+            return chain.proceed(request);
+        }
+        if (remaining == 0) {
+            deadlineExceededCount.incrementAndGet();
+            throw new InterruptedIOException("The deadline of request is exceeded");
+        }
+        int millis = (int) Math.min(Integer.MAX_VALUE, Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+        return chain.withConnectTimeout(limit(chain.connectTimeoutMillis(), millis), TimeUnit.MILLISECONDS)
+                .withWriteTimeout(limit(chain.writeTimeoutMillis(), millis), TimeUnit.MILLISECONDS)
+                .withReadTimeout(limit(chain.readTimeoutMillis(), millis), TimeUnit.MILLISECONDS)
+                .proceed(request);
+    }
+
+
+    /**
+     * Send the request and send it again if no response arrives within the delay,the first response wins
+     * and the other request is canceled,the failure of one request is ignored while the other is pending.
+     * The hedged requests are tagged with the metrics sample of current thread since they run on the
+     * threads of dispatcher
+     */
+    private Response hedge(Chain chain, OkHttpClient hedgeClient, Request request, long delay,
+                           long deadlineNanos) throws IOException {
+        Request.Builder builder = request.newBuilder().tag(HedgedRequest.class, HedgedRequest.INSTANCE);
+        MinIOMetrics.Sample sample = MinIOOperationContext.current();
+        if (sample != null) {
+            builder.tag(MinIOMetrics.Sample.class, sample);
+        }
+        Request hedgedRequest = builder.build();
+        HedgedCalls calls = new HedgedCalls();
+        Call primary = calls.enqueue(hedgeClient.newCall(hedgedRequest));
+        Call secondary = null;
+        Call winner = null;
+        int pending = 1;
+        try {
+            HedgedResult result = calls.poll(chain.call(), Math.min(TimeUnit.MILLISECONDS.toNanos(delay), remaining(deadlineNanos)));
+            while (true) {
+                if (result == null) {
+                    if (secondary != null || remaining(deadlineNanos) == 0) {
+                        deadlineExceededCount.incrementAndGet();
+                        throw new InterruptedIOException("The deadline of request is exceeded");
+                    }
+                    hedgeCount.incrementAndGet();
+                    secondary = calls.enqueue(hedgeClient.newCall(hedgedRequest));
+                    pending++;
+                } else if (result.response != null) {
+                    winner = result.call;
+                    if (winner == secondary) {
+                        hedgeWinCount.incrementAndGet();
+                    }
+                    return result.response;
+                } else if (--pending == 0) {
+                    throw result.failure;
+                }
+                result = calls.poll(chain.call(), remaining(deadlineNanos));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The request is interrupted");
+        } finally {
+            calls.settle(winner, primary, secondary);
+        }
+    }
+
+
+    private void retry(Request request, String reason, int attempt, long delay) throws IOException {
+        logger.warn("MinIO request:{} {} failed:{},retry:{} after {}ms",
+                request.method(), request.url().encodedPath(), reason, attempt + 1, delay);
+        retryCount.incrementAndGet();
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The retry is interrupted");
+        }
+    }
+
+
+    /**
+     * The wait before the retry,a random time up to the exponentially growing ceiling
+     *
+     * @param attempt the number of failed attempts minus one
+     */
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxDelay, baseDelay << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+
+    private LatencyWindow latencyOf(Request request) {
+        switch (request.method()) {
+            case "GET":
+                return getLatency;
+            case "HEAD":
+                return headLatency;
+            default:
+                return null;
+        }
+    }
+
+
+    /**
+     * The request is idempotent and its body is empty,so it can be sent again
+     */
+    private static boolean isRetryable(Request request) {
+        switch (request.method()) {
+            case "GET":
+            case "HEAD":
+            case "DELETE":
+                return true;
+            case "PUT":
+                RequestBody body = request.body();
+                try {
+                    return body == null || body.contentLength() == 0;
+                } catch (IOException e) {
+                    return false;
+                }
+            default:
+                return false;
+        }
+    }
+
+
+    private static boolean isTransient(int code) {
+        return code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+
+
+    private static boolean fitsDeadline(long delay, long deadlineNanos) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay) < deadlineNanos;
+    }
+
+
+    private static int limit(int timeoutMillis, int remainingMillis) {
+        return timeoutMillis == 0 ? remainingMillis : Math.min(timeoutMillis, remainingMillis);
+    }
+
+
+    private static long remaining(long deadlineNanos) {
+        return deadlineNanos == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+
+    /**
+     * Parse the Retry-After of seconds or http date,return 0 if absent or invalid,the unit is millisecond
+     *
+     * @param retryAfter the value of Retry-After header
+     */
+    private static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.trim().isEmpty()) {
+            return 0;
+        }
+        String value = retryAfter.trim();
+        try {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(value)));
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            ZonedDateTime time = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, time.toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+
+    /**
+     * The tag of the requests sent by hedging,they are passed through without retrying or hedging again
+     */
+    private static final class HedgedRequest {
+
+        private static final HedgedRequest INSTANCE = new HedgedRequest();
+    }
+
+
+    private static final class HedgedResult {
+
+        private final Call call;
+
+        private final Response response;
+
+        private final IOException failure;
+
+        private HedgedResult(Call call, Response response, IOException failure) {
+            this.call = call;
+            this.response = response;
+            this.failure = failure;
+        }
+    }
+
+
+    /**
+     * Collect the results of hedged calls,the responses arriving after the winner is taken are closed
+     */
+    private static final class HedgedCalls implements Callback {
+
+        private final BlockingQueue<HedgedResult> results = new LinkedBlockingQueue<>();
+
+        private boolean settled;
+
+        private Call enqueue(Call call) {
+            call.enqueue(this);
+            return call;
+        }
+
+        /**
+         * Wait for a result within the timeout,return null if none arrives,the wait is checked against the
+         * cancellation of the request periodically
+         */
+        private HedgedResult poll(Call call, long timeoutNanos) throws InterruptedException, IOException {
+            long deadlineNanos = timeoutNanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + timeoutNanos;
+            while (true) {
+                if (call.isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                long remaining = remaining(deadlineNanos);
+                HedgedResult result = results.poll(Math.min(remaining,
+                        TimeUnit.MILLISECONDS.toNanos(CANCEL_CHECK_INTERVAL)), TimeUnit.NANOSECONDS);
+                if (result != null || remaining <= TimeUnit.MILLISECONDS.toNanos(CANCEL_CHECK_INTERVAL)) {
+                    return result;
+                }
+            }
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            synchronized (this) {
+                if (!settled) {
+                    results.add(new HedgedResult(call, null, e));
+                }
+            }
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            synchronized (this) {
+                if (!settled) {
+                    results.add(new HedgedResult(call, response, null));
+                    return;
+                }
+            }
+            response.close();
+        }
+
+        /**
+         * Cancel the calls except the winner and close the responses not taken
+         */
+        private void settle(Call winner, Call... calls) {
+            synchronized (this) {
+                settled = true;
+            }
+            HedgedResult result;
+            while ((result = results.poll()) != null) {
+                if (result.response != null) {
+                    result.response.close();
+                }
+            }
+            for (Call call : calls) {
+                if (call != null && call != winner) {
+                    call.cancel();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * The recent latencies of requests,the hedge delay is the configured percentile of them
+     */
+    private class LatencyWindow {
+
+        private final long[] samples = new long[LATENCY_WINDOW];
+
+        private int count;
+
+        private int next;
+
+        private int updates;
+
+        private volatile long threshold = -1;
+
+        private synchronized void add(long latency) {
+            samples[next] = latency;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (count >= MIN_LATENCY_SAMPLES && (threshold < 0 || ++updates >= LATENCY_UPDATE_INTERVAL)) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int index = (int) Math.ceil(hedgePercentile * count) - 1;
+                threshold = sorted[Math.max(0, Math.min(count - 1, index))];
+                updates = 0;
+            }
+        }
+
+        /**
+         * The hedge delay,the unit is nanosecond and negative means not enough latencies recorded
+         */
+        private long threshold() {
+            return threshold;
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.github.minio;
+
+import io.minio.MinioClient;
+import okhttp3.OkHttpClient;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * MinIORoutingConnectionFactory
+ *
+ * Connect to the nodes of a distributed server,the requests are signed for the url or the first endpoint
+ * and spread over the endpoints by {@link MinIOEndpointRouter},the health probes of the routers are stopped
+ * when the factory is destroyed
+ *
+ * @author echils
+ */
+public class MinIORoutingConnectionFactory implements IMinIOConnectionFactory, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MinIORoutingConnectionFactory.class);
+
+    @Autowired
+    private MinIOProperties minIOProperties;
+
+    @Autowired(required = false)
+    private MinIOHttpTransport minIOHttpTransport;
+
+    private final List<OkHttpClient> routedClients = new CopyOnWriteArrayList<>();
+
+    @Override
+    public MinioClient getConnection() {
+        String username = minIOProperties.getUsername();
+        String password = minIOProperties.getPassword();
+        String url = StringUtils.isNotBlank(minIOProperties.getUrl())
+                ? minIOProperties.getUrl() : minIOProperties.getEndpoints().get(0);
+        MinioClient minioClient;
+        try {
+            logger.info("MinIO connect with url:{},endpoints:{}", url, minIOProperties.getEndpoints());
+            OkHttpClient httpClient = minIOHttpTransport == null ? MinIOHttpClientFactory.create(minIOProperties)
+                    : MinIOHttpClientFactory.withRouter(minIOHttpTransport.getHttpClient(), minIOProperties);
+            routedClients.add(httpClient);
+            minioClient = new MinIOExtendedClient(url, null, username, password,
+                    minIOProperties.getRegion(), null, httpClient);
+            minioClient.listBuckets();
+        } catch (Exception e) {
+            logger.error("MinIO connect failed:{}", minIOProperties.toString(), e);
+            throw new MinIOExecuteException("MinIO connect failed");
+        }
+        return minioClient;
+    }
+
+
+    @Override
+    public void destroy() {
+        routedClients.forEach(client -> MinIOHttpClientFactory.getRouter(client).ifPresent(MinIOEndpointRouter::close));
+        routedClients.clear();
+    }
+
+}
@@ -1,30 +1,60 @@
 package com.github.minio;
 
+import com.github.minio.cache.MinIODiskCache;
+import com.github.minio.cache.MinIOExpiringCache;
+import com.github.minio.cache.MinIOMemoryCache;
+import com.github.minio.metrics.MinIOCountingInputStream;
+import com.github.minio.metrics.MinIOMetrics;
+import com.github.minio.metrics.MinIOOperationContext;
+import com.github.minio.event.MinIOEventHandler;
+import com.github.minio.event.MinIOEventSubscription;
 import com.github.minio.schema.MinIOBucket;
+import com.github.minio.schema.MinIOContentType;
+import com.github.minio.schema.MinIODeleteReport;
 import com.github.minio.schema.MinIOFile;
+import com.github.minio.schema.MinIOIndexOptions;
+import com.github.minio.schema.MinIOListOptions;
 import com.github.minio.schema.MinIOPolicy;
+import com.github.minio.schema.MinIOTransferOptions;
+import com.github.minio.schema.MinIOTransferReport;
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
 import io.minio.messages.Bucket;
-import io.minio.messages.Item;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URLDecoder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.github.minio.schema.MinIOContentType.getContentType;
 import static com.github.minio.schema.MinIOPolicy.isShared;
@@ -34,16 +64,101 @@ import static com.github.minio.schema.MinIOPolicy.isShared;
  *
  * @author echils
  */
-public class MinIOTemplate {
+public class MinIOTemplate implements DisposableBean {
 
     private static final Logger logger = LoggerFactory.getLogger(MinIOTemplate.class);
 
     private static final String SEPARATOR_REGULAR = "/".equals(File.separator) ? File.separator : "\\\\";
 
+    /**
+     * The object name used to derive the public url prefix of shared bucket
+     */
+    private static final String URL_PROBE_OBJECT = "_";
+
+    /**
+     * The header prefix of user metadata
+     */
+    private static final String USER_METADATA_PREFIX = "x-amz-meta-";
+
+    /**
+     * The suffix of temporary file written by the prefix download
+     */
+    private static final String DOWNLOAD_TEMP_SUFFIX = ".download";
+
     private MinioClient minioClient;
 
+    private MinIOExpiringCache<String, BucketAccess> policyCache;
+
+    private MinIOExpiringCache<String, Boolean> bucketCache;
+
+    private long bucketCacheNegativeExpire;
+
+    private MinIOMultipartUploader multipartUploader;
+
+    private MinIORangedDownloader rangedDownloader;
+
+    private MinIOBatchDeleter batchDeleter;
+
+    private MinIOBatchTransfer batchTransfer;
+
+    private int eventParallelism;
+
+    private int eventQueueCapacity;
+
+    private int eventBatchSize;
+
+    private MinIOMetrics metrics;
+
+    private MinIODiskCache diskCache;
+
+    private MinIOMemoryCache memoryCache;
+
+    private boolean contentTypeSniffing;
+
     public MinIOTemplate(MinioClient minioClient) {
+        this(minioClient, new MinIOProperties());
+    }
+
+    public MinIOTemplate(MinioClient minioClient, MinIOProperties minIOProperties) {
+        this(minioClient, minIOProperties, MinIOMetrics.NOOP);
+    }
+
+    public MinIOTemplate(MinioClient minioClient, MinIOProperties minIOProperties, MinIOMetrics metrics) {
         this.minioClient = minioClient;
+        this.metrics = metrics;
+        this.policyCache = new MinIOExpiringCache<>(minIOProperties.getPolicyCacheSize(),
+                minIOProperties.getPolicyCacheExpire());
+        this.bucketCache = new MinIOExpiringCache<>(minIOProperties.getBucketCacheSize(),
+                minIOProperties.getBucketCacheExpire());
+        this.bucketCacheNegativeExpire = minIOProperties.getBucketCacheNegativeExpire();
+        this.contentTypeSniffing = minIOProperties.isContentTypeSniffing();
+        this.multipartUploader = new MinIOMultipartUploader(minioClient, minIOProperties);
+        this.rangedDownloader = new MinIORangedDownloader(minioClient, minIOProperties);
+        this.batchDeleter = new MinIOBatchDeleter(minioClient, minIOProperties);
+        this.batchTransfer = new MinIOBatchTransfer(minIOProperties);
+        this.eventParallelism = minIOProperties.getEventParallelism();
+        this.eventQueueCapacity = minIOProperties.getEventQueueCapacity();
+        this.eventBatchSize = minIOProperties.getEventBatchSize();
+        if (minIOProperties.isDiskCacheEnabled()) {
+            this.diskCache = new MinIODiskCache(new File(minIOProperties.getDiskCacheDirectory()),
+                    minIOProperties.getDiskCacheCapacity(), minIOProperties.getDiskCacheMaxObjectSize(),
+                    minIOProperties.getDiskCacheRevalidateInterval(), minIOProperties.getDiskCacheBuckets());
+        }
+        if (minIOProperties.isMemoryCacheEnabled()) {
+            this.memoryCache = new MinIOMemoryCache(minIOProperties.getMemoryCacheCapacity(),
+                    minIOProperties.getMemoryCacheMaxObjectSize(), minIOProperties.getMemoryCacheRevalidateInterval());
+        }
+    }
+
+
+    /**
+     * Close the disk cache,its directory is removed and the files are no longer cached
+     */
+    @Override
+    public void destroy() {
+        if (diskCache != null) {
+            diskCache.close();
+        }
     }
 
 
@@ -66,6 +181,7 @@ public class MinIOTemplate {
             if (CollectionUtils.isEmpty(buckets)) {
                 return Collections.emptyList();
             }
+            buckets.forEach(bucket -> bucketCache.put(bucket.name(), Boolean.TRUE));
             if (predicate != null) {
                 buckets = buckets.stream().filter(predicate).collect(Collectors.toList());
             }
@@ -89,13 +205,24 @@ public class MinIOTemplate {
 
 
     /**
-     * Determine whether the bucket exists
+     * Determine whether the bucket exists,the answer is cached so the existence checks of the other
+     * operations cost no request while the entry is alive
      *
      * @param bucketName the name of bucket
      */
     public boolean bucketExist(String bucketName) {
+        Boolean exist = bucketCache.getIfPresent(bucketName);
+        if (exist != null) {
+            return exist;
+        }
         try {
-            return minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
+            exist = minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
+            if (exist) {
+                bucketCache.put(bucketName, Boolean.TRUE);
+            } else {
+                bucketCache.put(bucketName, Boolean.FALSE, bucketCacheNegativeExpire);
+            }
+            return exist;
         } catch (Exception e) {
             logger.error("MinIO determine whether the bucket:{} exists failed:{}", bucketName, e.getMessage());
             throw new MinIOExecuteException(e);
@@ -125,11 +252,15 @@ public class MinIOTemplate {
         }
         try {
             minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
+            bucketCache.put(bucketName, Boolean.TRUE);
             String config = new MinIOPolicy(bucketName, policy).apply();
             minioClient.setBucketPolicy(SetBucketPolicyArgs.builder().bucket(bucketName).config(config).build());
         } catch (Exception e) {
             logger.error("MinIO create bucket:{} failed:{}", bucketName, e.getMessage());
+            bucketCache.invalidate(bucketName);
             throw new MinIOExecuteException(e);
+        } finally {
+            policyCache.invalidate(bucketName);
         }
     }
 
@@ -147,7 +278,10 @@ public class MinIOTemplate {
                 minioClient.setBucketPolicy(SetBucketPolicyArgs.builder().bucket(bucketName).config(config).build());
             } catch (Exception e) {
                 logger.error("MinIO set policy of bucket:{} failed:{}", bucketName, e.getMessage());
+                checkBucketMissing(bucketName, e);
                 throw new MinIOExecuteException(e);
+            } finally {
+                policyCache.invalidate(bucketName);
             }
         }
     }
@@ -160,15 +294,26 @@ public class MinIOTemplate {
      */
     public void deleteBucket(String bucketName) {
         if (bucketExist(bucketName)) {
-            List<MinIOFile> minIOFiles = listFiles(bucketName);
-            if (!CollectionUtils.isEmpty(minIOFiles)) {
-                deleteFiles(bucketName, minIOFiles.stream().map(MinIOFile::getFilename).collect(Collectors.toList()));
+            MinIODeleteReport report = deleteFiles(bucketName,
+                    streamFiles(bucketName).map(MinIOFile::getFilename).iterator());
+            if (!report.isSuccessful()) {
+                logger.error("MinIO delete bucket:{} failed,{} files cannot be deleted", bucketName, report.getFailed().size());
+                throw new MinIOExecuteException("Delete files of bucket failed:" + report.getFailed());
             }
             try {
                 minioClient.removeBucket(RemoveBucketArgs.builder().bucket(bucketName).build());
             } catch (Exception e) {
                 logger.error("MinIO delete bucket:{} failed:{}", bucketName, e.getMessage());
                 throw new MinIOExecuteException(e);
+            } finally {
+                bucketCache.invalidate(bucketName);
+                policyCache.invalidate(bucketName);
+                if (diskCache != null) {
+                    diskCache.invalidateBucket(bucketName);
+                }
+                if (memoryCache != null) {
+                    memoryCache.invalidateBucket(bucketName);
+                }
             }
         }
     }
@@ -180,24 +325,7 @@ public class MinIOTemplate {
      * @param bucketName the name of bucket
      */
     public List<MinIOFile> listFiles(String bucketName) {
-        if (!bucketExist(bucketName)) {
-            return Collections.emptyList();
-        }
-        List<MinIOFile> minIOFiles = new ArrayList<>();
-        minioClient.listObjects(ListObjectsArgs.builder().recursive(true)
-                .bucket(bucketName).build()).forEach(itemResult -> {
-            try {
-                Item item = itemResult.get();
-                String objectName = URLDecoder.decode(item.objectName(), "utf-8");
-                MinIOFile minioFile = new MinIOFile(objectName, bucketName,
-                        item.lastModified(), item.size(), getFileUrl(bucketName, objectName));
-                minIOFiles.add(minioFile);
-            } catch (Exception e) {
-                logger.error("MinIO list files of bucket:{} failed:{}", bucketName, e.getMessage());
-                throw new MinIOExecuteException(e);
-            }
-        });
-        return minIOFiles;
+        return listFiles(bucketName, new MinIOListOptions());
     }
 
 
@@ -208,24 +336,7 @@ public class MinIOTemplate {
      * @param prefix     prefix of the file name
      */
     public List<MinIOFile> listFiles(String bucketName, String prefix) {
-        if (!bucketExist(bucketName)) {
-            return Collections.emptyList();
-        }
-        List<MinIOFile> minIOFiles = new ArrayList<>();
-        minioClient.listObjects(ListObjectsArgs.builder().bucket(bucketName).recursive(true)
-                .prefix(prefix).build()).forEach(itemResult -> {
-            try {
-                Item item = itemResult.get();
-                String objectName = URLDecoder.decode(item.objectName(), "utf-8");
-                MinIOFile minioFile = new MinIOFile(objectName, bucketName,
-                        item.lastModified(), item.size(), getFileUrl(bucketName, objectName));
-                minIOFiles.add(minioFile);
-            } catch (Exception e) {
-                logger.error("MinIO list files of bucket:{} and prefix:{} failed:{}", bucketName, prefix, e.getMessage());
-                throw new MinIOExecuteException(e);
-            }
-        });
-        return minIOFiles;
+        return listFiles(bucketName, new MinIOListOptions().setPrefix(prefix));
     }
 
 
@@ -236,281 +347,1258 @@ public class MinIOTemplate {
      * @param predicate  {@link Predicate}
      */
     public List<MinIOFile> listFiles(String bucketName, Predicate<MinIOFile> predicate) {
-        List<MinIOFile> minIOFiles = listFiles(bucketName);
-        if (predicate != null) {
-            return minIOFiles.stream().filter(predicate).collect(Collectors.toList());
-        }
-        return minIOFiles;
+        return listFiles(bucketName, new MinIOListOptions().setPredicate(predicate));
     }
 
 
     /**
-     * Get minIO file by filename
+     * List files by bucketName with options
      *
      * @param bucketName the name of bucket
-     * @param filename   the name of file
+     * @param options    {@link MinIOListOptions}
      */
-    public Optional<MinIOFile> getFile(String bucketName, String filename) {
+    public List<MinIOFile> listFiles(String bucketName, MinIOListOptions options) {
+        return record(MinIOMetrics.LIST, bucketName, () -> {
+            List<MinIOFile> minIOFiles = new ArrayList<>();
+            iterateFiles(bucketName, options).forEachRemaining(minIOFiles::add);
+            return minIOFiles;
+        });
+    }
+
+
+    /**
+     * Lazily stream all files of bucket,close the stream or stop consuming it to terminate the listing early
+     *
+     * @param bucketName the name of bucket
+     */
+    public Stream<MinIOFile> streamFiles(String bucketName) {
+        return streamFiles(bucketName, new MinIOListOptions());
+    }
+
+
+    /**
+     * Lazily stream files by bucketName and prefix
+     *
+     * @param bucketName the name of bucket
+     * @param prefix     prefix of the file name
+     */
+    public Stream<MinIOFile> streamFiles(String bucketName, String prefix) {
+        return streamFiles(bucketName, new MinIOListOptions().setPrefix(prefix));
+    }
+
+
+    /**
+     * Lazily stream files by bucketName with options
+     *
+     * @param bucketName the name of bucket
+     * @param options    {@link MinIOListOptions}
+     */
+    public Stream<MinIOFile> streamFiles(String bucketName, MinIOListOptions options) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterateFiles(bucketName, options),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+
+    /**
+     * Lazily iterate all files of bucket
+     *
+     * @param bucketName the name of bucket
+     */
+    public Iterator<MinIOFile> iterateFiles(String bucketName) {
+        return iterateFiles(bucketName, new MinIOListOptions());
+    }
+
+
+    /**
+     * Lazily iterate files by bucketName and prefix
+     *
+     * @param bucketName the name of bucket
+     * @param prefix     prefix of the file name
+     */
+    public Iterator<MinIOFile> iterateFiles(String bucketName, String prefix) {
+        return iterateFiles(bucketName, new MinIOListOptions().setPrefix(prefix));
+    }
+
+
+    /**
+     * Lazily iterate files by bucketName with options,the listing pages are fetched on demand
+     *
+     * @param bucketName the name of bucket
+     * @param options    {@link MinIOListOptions}
+     */
+    public Iterator<MinIOFile> iterateFiles(String bucketName, MinIOListOptions options) {
         if (!bucketExist(bucketName)) {
-            return Optional.empty();
+            return Collections.emptyIterator();
         }
-        if (filename.startsWith("/")) {
-            filename = filename.substring(filename.indexOf("/") + 1);
+        ListObjectsArgs.Builder builder = ListObjectsArgs.builder().bucket(bucketName).recursive(true);
+        if (StringUtils.hasText(options.getPrefix())) {
+            builder.prefix(options.getPrefix());
         }
-        for (Result<Item> itemResult : minioClient.listObjects(ListObjectsArgs.builder()
-                .bucket(bucketName).recursive(true).prefix(filename).build())) {
-            try {
-                Item item = itemResult.get();
-                String objectName = URLDecoder.decode(item.objectName(), "utf-8");
-                if (objectName.trim().equals(filename.trim())) {
-                    return Optional.of(new MinIOFile(objectName, bucketName,
-                            item.lastModified(), item.size(), getFileUrl(bucketName, filename)));
-                }
-            } catch (Exception e) {
-                logger.error("MinIO get file of bucket name:{} and filename:{} failed:{}", bucketName, filename, e.getMessage());
-                throw new MinIOExecuteException(e);
-            }
+        if (StringUtils.hasText(options.getStartAfter())) {
+            builder.startAfter(options.getStartAfter());
+        }
+        if (options.getMaxKeys() > 0) {
+            builder.maxKeys(options.getMaxKeys());
         }
-        return Optional.empty();
+        int urlDuration = options.getUrlDuration();
+        TimeUnit urlTimeUnit = options.getUrlTimeUnit();
+        return new MinIOFileIterator(bucketName, minioClient.listObjects(builder.build()), options.getPredicate(),
+                (bucket, filename) -> getFileUrl(bucket, filename, urlDuration, urlTimeUnit), options.isEagerUrls())
+                .onError(e -> checkBucketMissing(bucketName, e));
     }
 
 
     /**
-     * Get url of the file with expired
+     * Subscribe the bucket notifications,the events are dispatched to the handler in batches on the worker threads,
+     * the subscription should be closed when it is no longer used
      *
      * @param bucketName the name of bucket
-     * @param filename   the name of file
-     * @param duration   the time of expire
-     * @param timeUnit   the time of unit
+     * @param prefix     prefix of the file name
+     * @param suffix     suffix of the file name
+     * @param events     the types of event,such as s3:ObjectCreated:*
+     * @param handler    {@link MinIOEventHandler}
      */
-    public URI getFileUrl(String bucketName, String filename, int duration, TimeUnit timeUnit) {
-        try {
-            if (filename.startsWith("/")) {
-                filename = filename.substring(filename.indexOf("/") + 1);
-            }
-            String bucketPolicy = minioClient.getBucketPolicy(GetBucketPolicyArgs.builder().bucket(bucketName).build());
-            String url = minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
-                    .method(Method.GET).bucket(bucketName).object(filename).expiry(duration, timeUnit).build());
-            if (isShared(bucketPolicy)) {
-                url = url.substring(0, url.indexOf("?"));
-            }
-            return new URI(URLDecoder.decode(url, "utf-8"));
-        } catch (Exception e) {
-            logger.error("MinIO get url of bucket name:{} and filename:{} failed:{}", bucketName, filename, e.getMessage());
-            throw new MinIOExecuteException(e);
+    public MinIOEventSubscription listenEvents(String bucketName, String prefix, String suffix, String[] events,
+                                               MinIOEventHandler handler) {
+        if (!bucketExist(bucketName)) {
+            logger.error("No such bucket where bucket name:{}", bucketName);
+            throw new MinIOExecuteException("No such bucket");
         }
+        return new MinIOEventSubscription(minioClient, bucketName, prefix, suffix, events, handler,
+                eventParallelism, eventQueueCapacity, eventBatchSize).start();
     }
 
 
     /**
-     * Get the url of the file,if the bucket is shared the url will never expired,otherwise default 7 day valid time
+     * Open a local index of bucket files,it is seeded by listing and kept fresh as the options,
+     * the index should be closed when it is no longer used
      *
      * @param bucketName the name of bucket
-     * @param filename   the name of file
+     * @param options    {@link MinIOIndexOptions}
      */
-    public URI getFileUrl(String bucketName, String filename) {
-        return getFileUrl(bucketName, filename, 7, TimeUnit.DAYS);
+    public MinIOBucketIndex openIndex(String bucketName, MinIOIndexOptions options) {
+        if (!bucketExist(bucketName)) {
+            logger.error("No such bucket where bucket name:{}", bucketName);
+            throw new MinIOExecuteException("No such bucket");
+        }
+        return new MinIOBucketIndex(minioClient, bucketName, options, this::getFileUrl)
+                .onListingError(e -> checkBucketMissing(bucketName, e)).start();
     }
 
 
     /**
-     * Copy file of bucket
+     * Get minIO file by filename with a single HEAD request
      *
-     * @param sourceBucketName The name of source bucket
-     * @param sourceFilename   The filename of source bucket
-     * @param targetBucketName The name of target bucket
-     * @param targetFilename   The filename of source file
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
      */
-    public URI copyFile(String sourceBucketName, String sourceFilename, String targetBucketName, String targetFilename) {
-        Optional<MinIOFile> sourceFile = getFile(sourceBucketName, sourceFilename);
-        if (!sourceFile.isPresent()) {
-            logger.error("No such file where bucket:{},filename:{}", sourceBucketName, sourceFile);
-            throw new MinIOExecuteException("No such file");
+    public Optional<MinIOFile> getFile(String bucketName, String filename) {
+        if (filename.startsWith("/")) {
+            filename = filename.substring(filename.indexOf("/") + 1);
         }
-        if (!bucketExist(targetBucketName)) {
-            createBucket(targetBucketName);
+        Optional<ObjectStat> objectStat = statFile(bucketName, filename);
+        if (!objectStat.isPresent()) {
+            return Optional.empty();
         }
-        try {
-            CopySource source = CopySource.builder().bucket(sourceBucketName).object(sourceFilename).build();
-            minioClient.copyObject(CopyObjectArgs.builder().bucket(targetBucketName).object(targetFilename).source(source).build());
-            return getFileUrl(targetBucketName, targetFilename);
-        } catch (Exception e) {
-            logger.error("MinIO copy file of bucket name:{} and filename:{} failed:{}", sourceBucketName, sourceFilename, e.getMessage());
-            throw new MinIOExecuteException(e);
+        ObjectStat stat = objectStat.get();
+        String objectName = filename;
+        MinIOFile minIOFile = MinIOFile.withUriResolver(filename, bucketName, stat.createdTime(), stat.length(),
+                () -> getFileUrl(bucketName, objectName));
+        minIOFile.setEtag(stat.etag());
+        minIOFile.setContentType(stat.contentType());
+        Map<String, String> userMetadata = new HashMap<>();
+        stat.httpHeaders().forEach((name, values) -> {
+            if (name.toLowerCase().startsWith(USER_METADATA_PREFIX) && !values.isEmpty()) {
+                userMetadata.put(name.substring(USER_METADATA_PREFIX.length()), values.get(0));
+            }
+        });
+        minIOFile.setUserMetadata(userMetadata);
+        return Optional.of(minIOFile);
+    }
+
+
+    /**
+     * Determine whether the file exists with a single HEAD request
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    public boolean exists(String bucketName, String filename) {
+        if (filename.startsWith("/")) {
+            filename = filename.substring(filename.indexOf("/") + 1);
         }
+        return statFile(bucketName, filename).isPresent();
     }
 
 
     /**
-     * Delete minio file if exist
+     * Get url of the file with expired
      *
      * @param bucketName the name of bucket
      * @param filename   the name of file
+     * @param duration   the time of expire
+     * @param timeUnit   the time of unit
      */
-    public void deleteFile(String bucketName, String filename) {
-        if (bucketExist(bucketName)) {
+    public URI getFileUrl(String bucketName, String filename, int duration, TimeUnit timeUnit) {
+        return record(MinIOMetrics.PRESIGN, bucketName, () -> {
+            String objectName = filename.startsWith("/") ? filename.substring(filename.indexOf("/") + 1) : filename;
             try {
-                minioClient.removeObject(RemoveObjectArgs.builder()
-                        .bucket(bucketName)
-                        .object(filename)
-                        .build());
+                BucketAccess bucketAccess = getBucketAccess(bucketName);
+                if (bucketAccess.shared) {
+                    return new URI(bucketAccess.urlPrefix + objectName);
+                }
+                MinIOPresigner presigner = presigner();
+                if (presigner != null) {
+                    return presigner.presign(bucketName, objectName, duration, timeUnit);
+                }
+                String url = minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                        .method(Method.GET).bucket(bucketName).object(objectName).expiry(duration, timeUnit).build());
+                return new URI(URLDecoder.decode(url, "utf-8"));
             } catch (Exception e) {
-                logger.error("MinIO delete file of bucket name:{} and filename:{} failed:{}", bucketName, filename, e.getMessage());
+                logger.error("MinIO get url of bucket name:{} and filename:{} failed:{}", bucketName, filename, e.getMessage());
+                checkBucketMissing(bucketName, e);
                 throw new MinIOExecuteException(e);
             }
-        }
+        });
     }
 
 
     /**
-     * Batch delete minIO file
-     * warn: minioClient.removeObjects() is not work
+     * Get urls of the files with expired,the policy of bucket is checked once and the urls are presigned locally
      *
      * @param bucketName the name of bucket
      * @param filenames  the name of files
+     * @param duration   the time of expire
+     * @param timeUnit   the time of unit
+     * @return the urls in the order of filenames
      */
-    public void deleteFiles(String bucketName, List<String> filenames) {
-        if (bucketExist(bucketName)) {
+    public List<URI> getFileUrls(String bucketName, List<String> filenames, int duration, TimeUnit timeUnit) {
+        return record(MinIOMetrics.PRESIGN, bucketName, () -> {
+            List<String> objectNames = filenames.stream()
+                    .map(filename -> filename.startsWith("/") ? filename.substring(filename.indexOf("/") + 1) : filename)
+                    .collect(Collectors.toList());
             try {
-                if (!CollectionUtils.isEmpty(filenames)) {
-                    filenames.forEach(name -> deleteFile(bucketName, name));
+                BucketAccess bucketAccess = getBucketAccess(bucketName);
+                MinIOPresigner presigner = presigner();
+                if (!bucketAccess.shared && presigner != null) {
+                    return presigner.presign(bucketName, objectNames, duration, timeUnit);
                 }
+                List<URI> urls = new ArrayList<>(objectNames.size());
+                for (String objectName : objectNames) {
+                    if (bucketAccess.shared) {
+                        urls.add(new URI(bucketAccess.urlPrefix + objectName));
+                    } else {
+                        String url = minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder().method(Method.GET)
+                                .bucket(bucketName).object(objectName).expiry(duration, timeUnit).build());
+                        urls.add(new URI(URLDecoder.decode(url, "utf-8")));
+                    }
+                }
+                return urls;
             } catch (Exception e) {
-                logger.error("MinIO batch delete files failed:{}", e.getMessage());
+                logger.error("MinIO get urls of bucket name:{} failed:{}", bucketName, e.getMessage());
+                checkBucketMissing(bucketName, e);
                 throw new MinIOExecuteException(e);
             }
+        });
+    }
+
+
+    private BucketAccess getBucketAccess(String bucketName) throws Exception {
+        BucketAccess bucketAccess = policyCache.getIfPresent(bucketName);
+        if (bucketAccess == null) {
+            // the policy changed while loading is not cached,the next call loads it again
+            long loadStamp = policyCache.beginLoad();
+            bucketAccess = loadBucketAccess(bucketName);
+            policyCache.putLoaded(bucketName, bucketAccess, loadStamp);
         }
+        return bucketAccess;
     }
 
 
     /**
-     * Download file with stream
-     *
-     * @param bucketName the name of bucket
-     * @param filename   the name of file
+     * The local presigner of client,null if the client does not support it
      */
-    public InputStream downloadFile(String bucketName, String filename) {
-        Optional<MinIOFile> fileOptional = getFile(bucketName, filename);
-        if (!fileOptional.isPresent()) {
-            throw new MinIOExecuteException("No such file");
-        }
-        try {
-            return minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(filename).build());
-        } catch (Exception e) {
-            logger.error("MinIO download file of bucket name:{} and filename:{} failed:{}", bucketName, filename, e.getMessage());
-            throw new MinIOExecuteException(e);
-        }
+    private MinIOPresigner presigner() {
+        return minioClient instanceof MinIOExtendedClient ? ((MinIOExtendedClient) minioClient).getPresigner() : null;
     }
 
 
     /**
-     * Download file with path
-     *
-     * @param bucketName the name of bucket
-     * @param filename   the name of file
-     * @param path       the local path of download
+     * The cache of bucket policy,exposes the hit and miss counters
      */
-    public void downloadFile(String bucketName, String filename, String path) {
-        Optional<MinIOFile> fileOptional = getFile(bucketName, filename);
-        if (!fileOptional.isPresent()) {
-            logger.error("No such file where bucket name:{} and filename:{}", bucketName, filename);
-            throw new MinIOExecuteException("No such file");
-        }
+    public MinIOExpiringCache<String, ?> getPolicyCache() {
+        return policyCache;
+    }
 
-        if (StringUtils.isEmpty(path)) throw new MinIOExecuteException("Illegal file path");
 
-        File file = new File(path);
+    /**
+     * The cache of bucket existence,exposes the hit and miss counters
+     */
+    public MinIOExpiringCache<String, Boolean> getBucketCache() {
+        return bucketCache;
+    }
 
-        if (file.isDirectory()) throw new MinIOExecuteException("The path is directory");
 
-        if (file.exists()) file.delete();
+    /**
+     * The local disk cache of downloaded files,empty when the disk cache is disabled
+     */
+    public Optional<MinIODiskCache> getDiskCache() {
+        return Optional.ofNullable(diskCache);
+    }
 
-        File parentFile = file.getParentFile();
-        
-        if (!parentFile.exists()) parentFile.mkdirs();
 
-        try {
-            minioClient.downloadObject(DownloadObjectArgs.builder()
-                    .bucket(bucketName).object(filename).filename(path).build());
-        } catch (Exception e) {
-            logger.error("MinIO download file of bucket name:{} and filename:{} failed:{}", bucketName, filename, e.getMessage());
-            throw new MinIOExecuteException(e);
-        }
+    /**
+     * The off-heap memory cache of small downloaded files,empty when the memory cache is disabled,
+     * exposes the hit,eviction and rejection counters
+     */
+    public Optional<MinIOMemoryCache> getMemoryCache() {
+        return Optional.ofNullable(memoryCache);
     }
 
 
     /**
-     * Upload file by file,default upload to the bucket path
+     * Get the url of the file,if the bucket is shared the url will never expired,otherwise default 7 day valid time
      *
      * @param bucketName the name of bucket
-     * @param file       the file of upload
+     * @param filename   the name of file
      */
-    public URI upload(String bucketName, File file) {
-        try {
-            FileInputStream fileInputStream = new FileInputStream(file);
-            return upload(bucketName, file.getName(), fileInputStream, getContentType(file));
-        } catch (FileNotFoundException e) {
-            throw new MinIOExecuteException(e);
-        }
+    public URI getFileUrl(String bucketName, String filename) {
+        return getFileUrl(bucketName, filename, 7, TimeUnit.DAYS);
     }
 
 
     /**
-     * Upload file by file with custom upload path
+     * Copy file of bucket
      *
-     * @param bucketName the name of bucket
-     * @param uploadPath the path of upload
-     * @param file       the file of upload
+     * @param sourceBucketName The name of source bucket
+     * @param sourceFilename   The filename of source bucket
+     * @param targetBucketName The name of target bucket
+     * @param targetFilename   The filename of source file
      */
-    public URI upload(String bucketName, String uploadPath, File file) {
-        try {
-            FileInputStream fileInputStream = new FileInputStream(file);
-            return upload(bucketName, uploadPath, fileInputStream, getContentType(file));
-        } catch (FileNotFoundException e) {
-            throw new MinIOExecuteException(e);
-        }
+    public URI copyFile(String sourceBucketName, String sourceFilename, String targetBucketName, String targetFilename) {
+        return record(MinIOMetrics.COPY, targetBucketName, () -> {
+            String sourceObjectName = sourceFilename.startsWith("/")
+                    ? sourceFilename.substring(sourceFilename.indexOf("/") + 1) : sourceFilename;
+            Optional<ObjectStat> objectStat = statFile(sourceBucketName, sourceObjectName);
+            if (!objectStat.isPresent()) {
+                logger.error("No such file where bucket:{},filename:{}", sourceBucketName, sourceFilename);
+                throw new MinIOExecuteException("No such file");
+            }
+            if (!bucketExist(targetBucketName)) {
+                createBucket(targetBucketName);
+            }
+            try {
+                multipartUploader.copy(sourceBucketName, sourceObjectName, objectStat.get().length(),
+                        targetBucketName, targetFilename);
+                invalidateCachedFile(targetBucketName, targetFilename);
+                return getFileUrl(targetBucketName, targetFilename);
+            } catch (Exception e) {
+                logger.error("MinIO copy file of bucket name:{} and filename:{} failed:{}", sourceBucketName, sourceFilename, e.getMessage());
+                checkBucketMissing(sourceBucketName, e);
+                checkBucketMissing(targetBucketName, e);
+                throw new MinIOExecuteException(e);
+            }
+        });
     }
 
 
     /**
-     * Upload file by inputStream
+     * Copy all files of the source prefix on the server concurrently,the target name is the target prefix
+     * followed by the name relative to the source prefix,the large file is copied as parts concurrently
      *
-     * @param bucketName  the name of bucket
-     * @param uploadPath  the path of upload
-     * @param inputStream the stream of upload file
-     * @param contentType the content type of upload type
+     * @param sourceBucketName the name of source bucket
+     * @param sourcePrefix     the prefix of source file name
+     * @param targetBucketName the name of target bucket
+     * @param targetPrefix     the prefix of target file name
+     * @param options          {@link MinIOTransferOptions},the filter of local files is not applied
      */
-    public URI upload(String bucketName, String uploadPath, InputStream inputStream, String contentType) {
-        if (!bucketExist(bucketName)) {
-            createBucket(bucketName);
-        }
+    public MinIOTransferReport copyPrefix(String sourceBucketName, String sourcePrefix, String targetBucketName,
+                                          String targetPrefix, MinIOTransferOptions options) {
+        return copyPrefix(sourceBucketName, sourcePrefix, targetBucketName, targetPrefix, options, false);
+    }
 
-        if (StringUtils.isEmpty(uploadPath)) {
-            throw new MinIOExecuteException("Illegal upload path");
-        }
 
-        uploadPath = uploadPath.replaceAll(SEPARATOR_REGULAR, "/");
-        if (uploadPath.startsWith("/")) {
-            uploadPath = uploadPath.substring(uploadPath.indexOf("/") + 1);
+    /**
+     * Move all files of the source prefix on the server concurrently,the files are copied first and the
+     * copied source files are deleted in batches,the source file failed to copy is kept
+     *
+     * @param sourceBucketName the name of source bucket
+     * @param sourcePrefix     the prefix of source file name
+     * @param targetBucketName the name of target bucket
+     * @param targetPrefix     the prefix of target file name
+     * @param options          {@link MinIOTransferOptions},the filter of local files is not applied
+     */
+    public MinIOTransferReport movePrefix(String sourceBucketName, String sourcePrefix, String targetBucketName,
+                                          String targetPrefix, MinIOTransferOptions options) {
+        return copyPrefix(sourceBucketName, sourcePrefix, targetBucketName, targetPrefix, options, true);
+    }
+
+
+    /**
+     * Delete minio file if exist
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    public void deleteFile(String bucketName, String filename) {
+        record(MinIOMetrics.DELETE, bucketName, () -> {
+            if (bucketExist(bucketName)) {
+                try {
+                    minioClient.removeObject(RemoveObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(filename)
+                            .build());
+                    invalidateCachedFile(bucketName, filename);
+                } catch (Exception e) {
+                    logger.error("MinIO delete file of bucket name:{} and filename:{} failed:{}", bucketName, filename, e.getMessage());
+                    checkBucketMissing(bucketName, e);
+                    throw new MinIOExecuteException(e);
+                }
+            }
+            return null;
+        });
+    }
+
+
+    /**
+     * Batch delete minIO file with multi-object delete requests
+     *
+     * @param bucketName the name of bucket
+     * @param filenames  the name of files
+     */
+    public MinIODeleteReport deleteFiles(String bucketName, List<String> filenames) {
+        if (CollectionUtils.isEmpty(filenames)) {
+            return new MinIODeleteReport();
+        }
+        return deleteFiles(bucketName, filenames.iterator());
+    }
+
+
+    /**
+     * Batch delete minIO file with multi-object delete requests,the names are consumed lazily
+     * so a listing can be streamed into it
+     *
+     * @param bucketName the name of bucket
+     * @param filenames  the name of files
+     */
+    public MinIODeleteReport deleteFiles(String bucketName, Iterator<String> filenames) {
+        return record(MinIOMetrics.DELETE, bucketName, () -> {
+            if (!bucketExist(bucketName)) {
+                return new MinIODeleteReport();
+            }
+            try {
+                MinIODeleteReport report = batchDeleter.delete(bucketName, filenames);
+                report.getDeleted().forEach(filename -> invalidateCachedFile(bucketName, filename));
+                if (report.getFailed().containsValue(ErrorCode.NO_SUCH_BUCKET.name())) {
+                    bucketCache.invalidate(bucketName);
+                }
+                return report;
+            } catch (Exception e) {
+                logger.error("MinIO batch delete files of bucket name:{} failed:{}", bucketName, e.getMessage());
+                throw new MinIOExecuteException(e);
+            }
+        });
+    }
+
+
+    /**
+     * Download file with stream
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    public InputStream downloadFile(String bucketName, String filename) {
+        return record(MinIOMetrics.DOWNLOAD, bucketName, () -> {
+            boolean cached = memoryCache != null || isDiskCached(bucketName);
+            if (!cached && !exists(bucketName, filename)) {
+                throw new MinIOExecuteException("No such file");
+            }
+            try {
+                InputStream inputStream = cached ? openCachedFile(bucketName, filename)
+                        : minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(filename).build());
+                MinIOMetrics.Sample sample = MinIOOperationContext.current();
+                return sample == null ? inputStream : new MinIOCountingInputStream(inputStream, sample);
+            } catch (MinIOExecuteException e) {
+                throw e;
+            } catch (Exception e) {
+                logger.error("MinIO download file of bucket name:{} and filename:{} failed:{}", bucketName, filename, e.getMessage());
+                checkBucketMissing(bucketName, e);
+                throw new MinIOExecuteException(e);
+            }
+        });
+    }
+
+
+    /**
+     * Download file with path
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     * @param path       the local path of download
+     */
+    public void downloadFile(String bucketName, String filename, String path) {
+        record(MinIOMetrics.DOWNLOAD, bucketName, () -> {
+            boolean cached = isDiskCached(bucketName);
+            if (!cached && !exists(bucketName, filename)) {
+                logger.error("No such file where bucket name:{} and filename:{}", bucketName, filename);
+                throw new MinIOExecuteException("No such file");
+            }
+
+            if (StringUtils.isEmpty(path)) throw new MinIOExecuteException("Illegal file path");
+
+            File file = new File(path);
+
+            if (file.isDirectory()) throw new MinIOExecuteException("The path is directory");
+
+            if (file.exists()) file.delete();
+
+            File parentFile = file.getParentFile();
+        
+            if (!parentFile.exists()) parentFile.mkdirs();
+
+            try {
+                MinIODiskCache.Entry entry = cached ? loadCachedFile(bucketName, filename) : null;
+                if (entry == null || !diskCache.copyTo(entry, file)) {
+                    minioClient.downloadObject(DownloadObjectArgs.builder()
+                            .bucket(bucketName).object(filename).filename(path).build());
+                }
+                MinIOOperationContext.recordBytes(file.length());
+            } catch (MinIOExecuteException e) {
+                throw e;
+            } catch (Exception e) {
+                logger.error("MinIO download file of bucket name:{} and filename:{} failed:{}", bucketName, filename, e.getMessage());
+                checkBucketMissing(bucketName, e);
+                throw new MinIOExecuteException(e);
+            }
+            return null;
+        });
+    }
+
+
+    /**
+     * Download file with path by fetching byte ranges concurrently,the completed ranges are recorded beside
+     * the local file so downloading the same file again resumes the failed download
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     * @param path       the local path of download
+     */
+    public void parallelDownloadFile(String bucketName, String filename, String path) {
+        record(MinIOMetrics.DOWNLOAD, bucketName, () -> {
+            if (StringUtils.isEmpty(path)) throw new MinIOExecuteException("Illegal file path");
+
+            File file = new File(path);
+
+            if (file.isDirectory()) throw new MinIOExecuteException("The path is directory");
+
+            File parentFile = file.getAbsoluteFile().getParentFile();
+
+            if (!parentFile.exists()) parentFile.mkdirs();
+
+            try {
+                rangedDownloader.download(bucketName, filename, file);
+                MinIOOperationContext.recordBytes(file.length());
+            } catch (ErrorResponseException e) {
+                if (e.errorResponse().errorCode() == ErrorCode.NO_SUCH_KEY) {
+                    logger.error("No such file where bucket name:{} and filename:{}", bucketName, filename);
+                    throw new MinIOExecuteException("No such file");
+                }
+                logger.error("MinIO download file of bucket name:{} and filename:{} failed:{}", bucketName, filename, e.getMessage());
+                checkBucketMissing(bucketName, e);
+                throw new MinIOExecuteException(e);
+            } catch (Exception e) {
+                logger.error("MinIO download file of bucket name:{} and filename:{} failed:{}", bucketName, filename, e.getMessage());
+                checkBucketMissing(bucketName, e);
+                throw new MinIOExecuteException(e);
+            }
+            return null;
+        });
+    }
+
+
+    /**
+     * Upload file by file,default upload to the bucket path
+     *
+     * @param bucketName the name of bucket
+     * @param file       the file of upload
+     */
+    public URI upload(String bucketName, File file) {
+        return upload(bucketName, file.getName(), file);
+    }
+
+
+    /**
+     * Upload file by file with custom upload path,the large file is uploaded with concurrent multipart upload
+     *
+     * @param bucketName the name of bucket
+     * @param uploadPath the path of upload
+     * @param file       the file of upload
+     */
+    public URI upload(String bucketName, String uploadPath, File file) {
+        return record(MinIOMetrics.UPLOAD, bucketName, () -> {
+            String path = prepareUpload(bucketName, uploadPath);
+            try {
+                try {
+                    multipartUploader.upload(bucketName, path, file, getContentType(file));
+                } catch (ErrorResponseException e) {
+                    if (!checkBucketMissing(bucketName, e)) {
+                        throw e;
+                    }
+                    logger.warn("MinIO bucket:{} is missing,create it and upload again", bucketName);
+                    prepareUpload(bucketName, path);
+                    multipartUploader.upload(bucketName, path, file, getContentType(file));
+                }
+                MinIOOperationContext.recordBytes(file.length());
+                invalidateCachedFile(bucketName, path);
+                return getFileUrl(bucketName, path);
+            } catch (Exception e) {
+                logger.error("MinIO upload file of bucket name:{} and upload path:{} failed:{}", bucketName, path, e.getMessage());
+                throw new MinIOExecuteException(e);
+            }
+        });
+    }
+
+
+    /**
+     * Upload file by inputStream,the stream is read until the end and the large one is uploaded with concurrent
+     * multipart upload
+     *
+     * @param bucketName  the name of bucket
+     * @param uploadPath  the path of upload
+     * @param inputStream the stream of upload file
+     * @param contentType the content type of upload type
+     */
+    public URI upload(String bucketName, String uploadPath, InputStream inputStream, String contentType) {
+        return record(MinIOMetrics.UPLOAD, bucketName, () -> {
+            String path = prepareUpload(bucketName, uploadPath);
+            MinIOMetrics.Sample sample = MinIOOperationContext.current();
+            try {
+                InputStream source = inputStream;
+                String type = contentType;
+                if (StringUtils.isEmpty(type)) {
+                    type = getContentType(path);
+                    if (contentTypeSniffing && MinIOContentType.isDefault(type)) {
+                        source = source.markSupported() ? source : new BufferedInputStream(source);
+                        String sniffedType = MinIOContentType.sniffContentType(source);
+                        type = sniffedType != null ? sniffedType : type;
+                    }
+                }
+                multipartUploader.upload(bucketName, path,
+                        sample == null ? source : new MinIOCountingInputStream(source, sample), type);
+                invalidateCachedFile(bucketName, path);
+                return getFileUrl(bucketName, path);
+            } catch (Exception e) {
+                logger.error("MinIO upload file of bucket name:{} and upload path:{} failed:{}", bucketName, path, e.getMessage());
+                checkBucketMissing(bucketName, e);
+                throw new MinIOExecuteException(e);
+            }
+        });
+    }
+
+
+    /**
+     * Upload all files of the local directory,the directory is walked lazily and the files are uploaded
+     * concurrently,the object name is the prefix followed by the relative path of file
+     *
+     * @param bucketName the name of bucket
+     * @param directory  the local directory
+     * @param prefix     the prefix of object name
+     * @param options    {@link MinIOTransferOptions}
+     */
+    public MinIOTransferReport uploadDirectory(String bucketName, File directory, String prefix,
+                                               MinIOTransferOptions options) {
+        if (directory == null || !directory.isDirectory()) {
+            throw new MinIOExecuteException("The path is not directory");
+        }
+        MinIOTransferOptions transferOptions = options == null ? new MinIOTransferOptions() : options;
+        String objectPrefix = normalizePrefix(prefix);
+        Path root = directory.toPath();
+        try (Stream<Path> paths = Files.walk(root)) {
+            Predicate<File> filter = transferOptions.getFilter();
+            Iterator<Map.Entry<String, File>> files = paths.filter(Files::isRegularFile)
+                    .filter(path -> filter == null || filter.test(path.toFile()))
+                    .map(path -> (Map.Entry<String, File>) new AbstractMap.SimpleImmutableEntry<>(objectPrefix
+                            + root.relativize(path).toString().replaceAll(SEPARATOR_REGULAR, "/"), path.toFile()))
+                    .iterator();
+            return uploadFiles(bucketName, files, transferOptions);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("MinIO upload directory:{} to bucket name:{} failed:{}", directory, bucketName, e.getMessage());
+            throw new MinIOExecuteException(e);
+        }
+    }
+
+
+    /**
+     * Upload the files concurrently
+     *
+     * @param bucketName the name of bucket
+     * @param files      the upload path and the file of upload
+     */
+    public MinIOTransferReport uploadAll(String bucketName, Map<String, File> files) {
+        return uploadAll(bucketName, files, new MinIOTransferOptions());
+    }
+
+
+    /**
+     * Upload the files concurrently
+     *
+     * @param bucketName the name of bucket
+     * @param files      the upload path and the file of upload
+     * @param options    {@link MinIOTransferOptions}
+     */
+    public MinIOTransferReport uploadAll(String bucketName, Map<String, File> files, MinIOTransferOptions options) {
+        if (CollectionUtils.isEmpty(files)) {
+            return new MinIOTransferReport();
+        }
+        MinIOTransferOptions transferOptions = options == null ? new MinIOTransferOptions() : options;
+        Predicate<File> filter = transferOptions.getFilter();
+        Iterator<Map.Entry<String, File>> iterator = files.entrySet().stream()
+                .filter(entry -> filter == null || filter.test(entry.getValue()))
+                .map(entry -> (Map.Entry<String, File>) new AbstractMap.SimpleImmutableEntry<>(
+                        normalizeObjectName(entry.getKey()), entry.getValue()))
+                .iterator();
+        return uploadFiles(bucketName, iterator, transferOptions);
+    }
+
+
+    /**
+     * Download all files of the prefix to the local directory,the listing is consumed lazily and the files
+     * are downloaded concurrently,the local path is the local directory followed by the object name relative
+     * to the prefix.Every file is written to a temporary file beside the target and renamed when complete,
+     * the modified time of the local file is set to the one of object so the unchanged file is skipped
+     * by size and modified time in the next download
+     *
+     * @param bucketName the name of bucket
+     * @param prefix     the prefix of object name
+     * @param directory  the local directory
+     * @param options    {@link MinIOTransferOptions}
+     */
+    public MinIOTransferReport downloadPrefix(String bucketName, String prefix, File directory,
+                                              MinIOTransferOptions options) {
+        if (directory == null || (directory.exists() && !directory.isDirectory())) {
+            throw new MinIOExecuteException("The path is not directory");
+        }
+        if (!bucketExist(bucketName)) {
+            logger.error("No such bucket where bucket name:{}", bucketName);
+            throw new MinIOExecuteException("No such bucket");
+        }
+        MinIOTransferOptions transferOptions = options == null ? new MinIOTransferOptions() : options;
+        Predicate<File> filter = transferOptions.getFilter();
+        Path root = directory.toPath().toAbsolutePath().normalize();
+        String objectPrefix = StringUtils.isEmpty(prefix) ? "" : normalizeObjectName(prefix);
+        int relativeStart = objectPrefix.lastIndexOf('/') + 1;
+        ListObjectsArgs.Builder builder = ListObjectsArgs.builder().bucket(bucketName).recursive(true);
+        if (!objectPrefix.isEmpty()) {
+            builder.prefix(objectPrefix);
+        }
+        Iterator<MinIOFile> listing = new MinIOFileIterator(bucketName, minioClient.listObjects(builder.build()),
+                minIOFile -> !minIOFile.getFilename().endsWith("/"), null)
+                .onError(e -> checkBucketMissing(bucketName, e));
+        Iterator<Map.Entry<MinIOFile, Path>> files = StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(listing, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .map(minIOFile -> (Map.Entry<MinIOFile, Path>) new AbstractMap.SimpleImmutableEntry<>(minIOFile,
+                        root.resolve(minIOFile.getFilename().substring(relativeStart)).normalize()))
+                .filter(entry -> filter == null || filter.test(entry.getValue().toFile()))
+                .iterator();
+        return batchTransfer.transfer(files, transferOptions.getParallelism(), entry -> entry.getKey().getFilename(),
+                entry -> record(MinIOMetrics.DOWNLOAD, bucketName, () -> {
+                    MinIOFile minIOFile = entry.getKey();
+                    Path target = entry.getValue();
+                    if (!target.startsWith(root) || target.equals(root)) {
+                        throw new MinIOExecuteException("Illegal file path");
+                    }
+                    try {
+                        if (transferOptions.isSkipUnchanged() && isUnchanged(minIOFile, target)) {
+                            return -1L;
+                        }
+                        downloadObject(bucketName, minIOFile, target);
+                        MinIOOperationContext.recordBytes(minIOFile.getSize());
+                        return minIOFile.getSize();
+                    } catch (Exception e) {
+                        checkBucketMissing(bucketName, e);
+                        throw new MinIOExecuteException(e);
+                    }
+                }), transferOptions.getListener());
+    }
+
+
+    /**
+     * Download the object to a temporary file beside the target and rename it to the target,so the target
+     * is never seen half written and an interrupted download leaves the previous file intact
+     *
+     * @param bucketName the name of bucket
+     * @param minIOFile  {@link MinIOFile}
+     * @param target     the local file
+     */
+    private void downloadObject(String bucketName, MinIOFile minIOFile, Path target) throws Exception {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".minio", DOWNLOAD_TEMP_SUFFIX);
+        try {
+            try (InputStream inputStream = minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucketName).object(minIOFile.getFilename()).build())) {
+                Files.copy(inputStream, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (minIOFile.getLastModified() != null) {
+                Files.setLastModifiedTime(temp, FileTime.from(minIOFile.getLastModified().toInstant()));
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+
+    /**
+     * Determine whether the local file has the same size and modified time as the object,the modified
+     * time is compared in seconds since the file system may not keep milliseconds
+     *
+     * @param minIOFile {@link MinIOFile}
+     * @param target    the local file
+     */
+    private static boolean isUnchanged(MinIOFile minIOFile, Path target) throws IOException {
+        if (minIOFile.getLastModified() == null || !Files.isRegularFile(target)
+                || Files.size(target) != minIOFile.getSize()) {
+            return false;
+        }
+        long localModified = Files.getLastModifiedTime(target).to(TimeUnit.SECONDS);
+        return localModified == minIOFile.getLastModified().toEpochSecond();
+    }
+
+
+    /**
+     * Upload the files with the batch transfer,the bucket is checked once and the url of file is not resolved
+     *
+     * @param bucketName the name of bucket
+     * @param files      the object name and the file of upload
+     * @param options    {@link MinIOTransferOptions}
+     */
+    private MinIOTransferReport uploadFiles(String bucketName, Iterator<Map.Entry<String, File>> files,
+                                            MinIOTransferOptions options) {
+        if (!bucketExist(bucketName)) {
+            createBucket(bucketName);
+        }
+        return batchTransfer.transfer(files, options.getParallelism(), Map.Entry::getKey, entry ->
+                record(MinIOMetrics.UPLOAD, bucketName, () -> {
+                    String objectName = entry.getKey();
+                    File file = entry.getValue();
+                    try {
+                        if (options.isSkipUnchanged() && isUnchanged(bucketName, objectName, file)) {
+                            return -1L;
+                        }
+                        long size = file.length();
+                        multipartUploader.upload(bucketName, objectName, file, getContentType(file));
+                        MinIOOperationContext.recordBytes(size);
+                        invalidateCachedFile(bucketName, objectName);
+                        return size;
+                    } catch (Exception e) {
+                        checkBucketMissing(bucketName, e);
+                        throw new MinIOExecuteException(e);
+                    }
+                }), options.getListener());
+    }
+
+
+    /**
+     * Copy the files of prefix with the batch transfer,the listing is consumed lazily and the url of file
+     * is not resolved,the source files of move are deleted when all copies are done
+     *
+     * @param sourceBucketName the name of source bucket
+     * @param sourcePrefix     the prefix of source file name
+     * @param targetBucketName the name of target bucket
+     * @param targetPrefix     the prefix of target file name
+     * @param options          {@link MinIOTransferOptions}
+     * @param move             whether delete the copied source files
+     */
+    private MinIOTransferReport copyPrefix(String sourceBucketName, String sourcePrefix, String targetBucketName,
+                                           String targetPrefix, MinIOTransferOptions options, boolean move) {
+        MinIOTransferOptions transferOptions = options == null ? new MinIOTransferOptions() : options;
+        String sourceObjectPrefix = StringUtils.isEmpty(sourcePrefix) ? "" : normalizeObjectName(sourcePrefix);
+        String targetObjectPrefix = StringUtils.isEmpty(targetPrefix) ? "" : normalizeObjectName(targetPrefix);
+        if (sourceBucketName.equals(targetBucketName) && targetObjectPrefix.startsWith(sourceObjectPrefix)) {
+            throw new MinIOExecuteException("The target prefix is inside the source prefix");
+        }
+        if (!bucketExist(sourceBucketName)) {
+            logger.error("No such bucket where bucket name:{}", sourceBucketName);
+            throw new MinIOExecuteException("No such bucket");
+        }
+        if (!bucketExist(targetBucketName)) {
+            createBucket(targetBucketName);
+        }
+        ListObjectsArgs.Builder builder = ListObjectsArgs.builder().bucket(sourceBucketName).recursive(true);
+        if (!sourceObjectPrefix.isEmpty()) {
+            builder.prefix(sourceObjectPrefix);
+        }
+        Iterator<MinIOFile> files = new MinIOFileIterator(sourceBucketName, minioClient.listObjects(builder.build()),
+                minIOFile -> !minIOFile.getFilename().endsWith("/"), null)
+                .onError(e -> checkBucketMissing(sourceBucketName, e));
+        MinIOTransferReport report = batchTransfer.transfer(files, transferOptions.getParallelism(), MinIOFile::getFilename,
+                minIOFile -> record(MinIOMetrics.COPY, targetBucketName, () -> {
+                    String objectName = targetObjectPrefix + minIOFile.getFilename().substring(sourceObjectPrefix.length());
+                    try {
+                        if (transferOptions.isSkipUnchanged() && isUnchanged(targetBucketName, objectName, minIOFile)) {
+                            return -1L;
+                        }
+                        multipartUploader.copy(sourceBucketName, minIOFile.getFilename(), minIOFile.getSize(),
+                                targetBucketName, objectName);
+                        invalidateCachedFile(targetBucketName, objectName);
+                        return minIOFile.getSize();
+                    } catch (Exception e) {
+                        checkBucketMissing(sourceBucketName, e);
+                        checkBucketMissing(targetBucketName, e);
+                        throw new MinIOExecuteException(e);
+                    }
+                }), transferOptions.getListener());
+        if (move) {
+            Iterator<String> copied = Stream.concat(report.getTransferred().stream(), report.getSkipped().stream()).iterator();
+            MinIODeleteReport deleteReport = deleteFiles(sourceBucketName, copied);
+            deleteReport.getFailed().forEach(report::addFailed);
+        }
+        return report;
+    }
+
+
+    /**
+     * Determine whether the target object has the same size and etag as the source object,the object copied
+     * as parts has an etag of its own and is compared with the etag of source recorded in its metadata
+     *
+     * @param bucketName the name of target bucket
+     * @param objectName the name of target object
+     * @param source     the source file
+     */
+    private boolean isUnchanged(String bucketName, String objectName, MinIOFile source) {
+        Optional<ObjectStat> objectStat = statFile(bucketName, objectName);
+        if (!objectStat.isPresent() || objectStat.get().length() != source.getSize()
+                || objectStat.get().etag() == null || source.getEtag() == null) {
+            return false;
+        }
+        return objectStat.get().etag().replace("\"", "").equals(source.getEtag())
+                || source.getEtag().equals(MinIOMultipartUploader.sourceEtag(objectStat.get()));
+    }
+
+
+    /**
+     * Determine whether the object has the same size and etag as the local file
+     *
+     * @param bucketName the name of bucket
+     * @param objectName the name of object
+     * @param file       the local file
+     */
+    private boolean isUnchanged(String bucketName, String objectName, File file) throws Exception {
+        Optional<ObjectStat> objectStat = statFile(bucketName, objectName);
+        if (!objectStat.isPresent() || objectStat.get().length() != file.length() || objectStat.get().etag() == null) {
+            return false;
+        }
+        return objectStat.get().etag().replace("\"", "").equals(multipartUploader.computeEtag(file));
+    }
+
+
+    /**
+     * Normalize the prefix of object name,the leading separator is removed and the trailing separator is added
+     *
+     * @param prefix the prefix of object name
+     */
+    private static String normalizePrefix(String prefix) {
+        if (StringUtils.isEmpty(prefix)) {
+            return "";
+        }
+        String objectPrefix = normalizeObjectName(prefix);
+        return objectPrefix.isEmpty() || objectPrefix.endsWith("/") ? objectPrefix : objectPrefix + "/";
+    }
+
+
+    /**
+     * Normalize the object name,the local separators are replaced and the leading separator is removed
+     *
+     * @param objectName the name of object
+     */
+    private static String normalizeObjectName(String objectName) {
+        String name = objectName.replaceAll(SEPARATOR_REGULAR, "/");
+        while (name.startsWith("/")) {
+            name = name.substring(1);
+        }
+        return name;
+    }
+
+
+    /**
+     * Create the bucket if absent and normalize the upload path
+     *
+     * @param bucketName the name of bucket
+     * @param uploadPath the path of upload
+     */
+    String prepareUpload(String bucketName, String uploadPath) {
+        if (!bucketExist(bucketName)) {
+            createBucket(bucketName);
+        }
+
+        if (StringUtils.isEmpty(uploadPath)) {
+            throw new MinIOExecuteException("Illegal upload path");
+        }
+
+        uploadPath = uploadPath.replaceAll(SEPARATOR_REGULAR, "/");
+        if (uploadPath.startsWith("/")) {
+            uploadPath = uploadPath.substring(uploadPath.indexOf("/") + 1);
         }
 
         if (!uploadPath.contains(".")) {
             throw new MinIOExecuteException("Illegal upload path，missing file type");
         }
+        return uploadPath;
+    }
+
 
+    /**
+     * Run the operation with the sample of metrics bound to current thread,the operation called by another
+     * recorded operation is part of it and not recorded separately
+     *
+     * @param operation  the name of operation
+     * @param bucketName the name of bucket
+     * @param action     the action of operation
+     */
+    private <T> T record(String operation, String bucketName, Supplier<T> action) {
+        if (MinIOOperationContext.current() != null) {
+            return action.get();
+        }
+        MinIOMetrics.Sample sample = metrics.start(operation, bucketName);
+        if (sample == MinIOMetrics.Sample.NOOP) {
+            return action.get();
+        }
+        MinIOMetrics.Sample previous = MinIOOperationContext.attach(sample);
+        Throwable error = null;
         try {
-            minioClient.putObject(PutObjectArgs.builder().bucket(bucketName).object(uploadPath).stream(
-                    inputStream, inputStream.available(), -1)
-                    .contentType(contentType)
-                    .build());
+            return action.get();
+        } catch (RuntimeException | Error e) {
+            error = e;
+            throw e;
+        } finally {
+            MinIOOperationContext.restore(previous);
+            sample.stop(error);
+        }
+    }
+
 
-            return getFileUrl(bucketName, uploadPath);
+    /**
+     * Get the metadata of file,return empty if the file or the bucket is missing
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    private Optional<ObjectStat> statFile(String bucketName, String filename) {
+        try {
+            return Optional.of(minioClient.statObject(StatObjectArgs.builder().bucket(bucketName).object(filename).build()));
+        } catch (ErrorResponseException e) {
+            ErrorCode errorCode = e.errorResponse().errorCode();
+            if (errorCode == ErrorCode.NO_SUCH_KEY || errorCode == ErrorCode.NO_SUCH_OBJECT) {
+                return Optional.empty();
+            }
+            if (checkBucketMissing(bucketName, e)) {
+                return Optional.empty();
+            }
+            logger.error("MinIO get file of bucket name:{} and filename:{} failed:{}", bucketName, filename, e.getMessage());
+            throw new MinIOExecuteException(e);
         } catch (Exception e) {
-            logger.error("MinIO upload file of bucket name:{} and upload path:{} failed:{}", bucketName, uploadPath, e.getMessage());
+            logger.error("MinIO get file of bucket name:{} and filename:{} failed:{}", bucketName, filename, e.getMessage());
             throw new MinIOExecuteException(e);
         }
     }
 
-}
 
+    /**
+     * Whether the files of bucket are served through the disk cache
+     *
+     * @param bucketName the name of bucket
+     */
+    private boolean isDiskCached(String bucketName) {
+        return diskCache != null && diskCache.isEnabled(bucketName);
+    }
+
+
+    /**
+     * Open the file through the caches,the small file is served from the memory cache and the others from
+     * the disk cache,the cached content is revalidated with the etag of object and downloaded again when
+     * the object has changed
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    private InputStream openCachedFile(String bucketName, String filename) throws Exception {
+        InputStream content = memoryCache == null ? null : memoryCache.getIfFresh(bucketName, filename);
+        if (content != null) {
+            return content;
+        }
+        MinIODiskCache.Entry entry = isDiskCached(bucketName) ? diskCache.getIfFresh(bucketName, filename) : null;
+        if (entry == null) {
+            ObjectStat stat = statCachedFile(bucketName, filename);
+            if (memoryCache != null && memoryCache.isCacheable(stat.length())) {
+                content = memoryCache.getIfMatch(bucketName, filename, stat.etag());
+                if (content != null) {
+                    return content;
+                }
+                InputStream inputStream;
+                try {
+                    inputStream = minioClient.getObject(GetObjectArgs.builder()
+                            .bucket(bucketName).object(filename).matchETag(stat.etag()).build());
+                } catch (ErrorResponseException e) {
+                    if (e.errorResponse().errorCode() != ErrorCode.PRECONDITION_FAILED) {
+                        throw e;
+                    }
+                    // the object is overwritten after the stat,the new content is served without caching
+                    return minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(filename).build());
+                }
+                try {
+                    content = memoryCache.put(bucketName, filename, stat.etag(), inputStream, stat.length());
+                } catch (Exception e) {
+                    inputStream.close();
+                    throw e;
+                }
+                if (content == null) {
+                    return inputStream;
+                }
+                inputStream.close();
+                return content;
+            }
+            entry = isDiskCached(bucketName) ? loadCachedFile(bucketName, filename, stat) : null;
+        }
+        InputStream inputStream = entry == null ? null : diskCache.open(entry);
+        return inputStream != null ? inputStream
+                : minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(filename).build());
+    }
+
+
+    /**
+     * Resolve the cached file of disk cache,return null if the file is too large to be cached
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    private MinIODiskCache.Entry loadCachedFile(String bucketName, String filename) throws Exception {
+        MinIODiskCache.Entry entry = diskCache.getIfFresh(bucketName, filename);
+        return entry != null ? entry : loadCachedFile(bucketName, filename, statCachedFile(bucketName, filename));
+    }
+
+
+    /**
+     * Resolve the cached file of disk cache with the current metadata of object,the file is downloaded
+     * again when the etag of object has changed.The download only succeeds while the etag is still the one
+     * of metadata,return null if the object is overwritten meanwhile
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     * @param stat       the metadata of object
+     */
+    private MinIODiskCache.Entry loadCachedFile(String bucketName, String filename, ObjectStat stat) throws Exception {
+        MinIODiskCache.Entry entry = diskCache.getIfMatch(bucketName, filename, stat.etag());
+        if (entry == null && diskCache.isCacheable(stat.length())) {
+            try (InputStream inputStream = minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucketName).object(filename).matchETag(stat.etag()).build())) {
+                entry = diskCache.put(bucketName, filename, stat.etag(), inputStream);
+            } catch (ErrorResponseException e) {
+                if (e.errorResponse().errorCode() != ErrorCode.PRECONDITION_FAILED) {
+                    throw e;
+                }
+                return null;
+            }
+        }
+        return entry;
+    }
+
+
+    /**
+     * Get the metadata of cached file,the cached content is discarded if the file is missing
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    private ObjectStat statCachedFile(String bucketName, String filename) {
+        Optional<ObjectStat> objectStat = statFile(bucketName, filename);
+        if (!objectStat.isPresent()) {
+            invalidateCachedFile(bucketName, filename);
+            logger.error("No such file where bucket name:{} and filename:{}", bucketName, filename);
+            throw new MinIOExecuteException("No such file");
+        }
+        return objectStat.get();
+    }
+
+
+    /**
+     * Discard the cached file after the object is written or deleted
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    void invalidateCachedFile(String bucketName, String filename) {
+        if (diskCache != null) {
+            diskCache.invalidate(bucketName, filename);
+        }
+        if (memoryCache != null) {
+            memoryCache.invalidate(bucketName, filename);
+        }
+    }
+
+
+    /**
+     * The multipart upload engine of template
+     */
+    MinIOMultipartUploader getMultipartUploader() {
+        return multipartUploader;
+    }
+
+
+    /**
+     * Evict the cached state of bucket when the error says the bucket is missing,
+     * so the next operation checks the existence again
+     *
+     * @param bucketName the name of bucket
+     * @param e          the error of operation
+     */
+    private boolean checkBucketMissing(String bucketName, Exception e) {
+        if (e instanceof ErrorResponseException
+                && ((ErrorResponseException) e).errorResponse().errorCode() == ErrorCode.NO_SUCH_BUCKET) {
+            bucketCache.invalidate(bucketName);
+            policyCache.invalidate(bucketName);
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * Load the policy of bucket,the public url prefix of shared bucket is derived by signing locally once
+     *
+     * @param bucketName the name of bucket
+     */
+    private BucketAccess loadBucketAccess(String bucketName) throws Exception {
+        String bucketPolicy = minioClient.getBucketPolicy(GetBucketPolicyArgs.builder().bucket(bucketName).build());
+        if (!isShared(bucketPolicy)) {
+            return BucketAccess.PRIVATE;
+        }
+        String url = minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                .method(Method.GET).bucket(bucketName).object(URL_PROBE_OBJECT).build());
+        url = url.substring(0, url.indexOf("?"));
+        url = url.substring(0, url.length() - URL_PROBE_OBJECT.length());
+        return new BucketAccess(true, URLDecoder.decode(url, "utf-8"));
+    }
+
+
+    /**
+     * The cached access of bucket
+     */
+    private static class BucketAccess {
+
+        private static final BucketAccess PRIVATE = new BucketAccess(false, null);
 
+        private final boolean shared;
+
+        private final String urlPrefix;
+
+        private BucketAccess(boolean shared, String urlPrefix) {
+            this.shared = shared;
+            this.urlPrefix = urlPrefix;
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.github.minio;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MinIOThreadFactory
+ *
+ * Create named daemon threads,so the worker pools never block the shutdown of application
+ *
+ * @author echils
+ */
+public class MinIOThreadFactory implements ThreadFactory {
+
+    private final String namePrefix;
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public MinIOThreadFactory(String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.github.minio;
+
+import com.github.minio.schema.MinIOFile;
+import com.github.minio.schema.MinIOListOptions;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.util.Assert;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+
+/**
+ * ReactiveMinIOTemplate
+ *
+ * The reactive counterpart of {@link MinIOTemplate},the listing pages and the download chunks are fetched
+ * on demand of the subscriber and the upload consumes the content part by part,the blocking calls of
+ * the client run on the scheduler instead of the subscriber thread
+ *
+ * @author echils
+ */
+public class ReactiveMinIOTemplate {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveMinIOTemplate.class);
+
+    /**
+     * The default size of download chunk
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final MinIOTemplate delegate;
+
+    private final Scheduler scheduler;
+
+    private final DataBufferFactory dataBufferFactory;
+
+    private final int chunkSize;
+
+    public ReactiveMinIOTemplate(MinIOTemplate minIOTemplate) {
+        this(minIOTemplate, Schedulers.boundedElastic(), new DefaultDataBufferFactory(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ReactiveMinIOTemplate(MinIOTemplate minIOTemplate, Scheduler scheduler,
+                                 DataBufferFactory dataBufferFactory, int chunkSize) {
+        Assert.notNull(minIOTemplate, "Template is not allowed empty");
+        Assert.notNull(scheduler, "Scheduler is not allowed empty");
+        Assert.notNull(dataBufferFactory, "Data buffer factory is not allowed empty");
+        this.delegate = minIOTemplate;
+        this.scheduler = scheduler;
+        this.dataBufferFactory = dataBufferFactory;
+        this.chunkSize = chunkSize > 0 ? chunkSize : DEFAULT_CHUNK_SIZE;
+    }
+
+
+    /**
+     * List all files of bucket
+     *
+     * @param bucketName the name of bucket
+     */
+    public Flux<MinIOFile> listFiles(String bucketName) {
+        return listFiles(bucketName, new MinIOListOptions());
+    }
+
+
+    /**
+     * List the files whose name starts with the prefix
+     *
+     * @param bucketName the name of bucket
+     * @param prefix     the prefix of filename
+     */
+    public Flux<MinIOFile> listFiles(String bucketName, String prefix) {
+        return listFiles(bucketName, new MinIOListOptions().setPrefix(prefix));
+    }
+
+
+    /**
+     * List the files of bucket,the next page is requested only when the subscriber demands more files
+     *
+     * @param bucketName the name of bucket
+     * @param options    {@link MinIOListOptions}
+     */
+    public Flux<MinIOFile> listFiles(String bucketName, MinIOListOptions options) {
+        return Flux.fromIterable(() -> delegate.iterateFiles(bucketName, options)).subscribeOn(scheduler);
+    }
+
+
+    /**
+     * Download file as chunks,the next chunk is read only when the subscriber demands more data
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    public Flux<DataBuffer> downloadFile(String bucketName, String filename) {
+        return DataBufferUtils.readInputStream(() -> delegate.downloadFile(bucketName, filename),
+                dataBufferFactory, chunkSize).subscribeOn(scheduler);
+    }
+
+
+    /**
+     * Upload the content,the full parts are uploaded concurrently while the content is consumed and
+     * the consuming waits when all part buffers are in flight.Without {@link MinIOExtendedClient} the
+     * content is streamed into a single put of unknown size instead
+     *
+     * @param bucketName  the name of bucket
+     * @param uploadPath  the path of upload
+     * @param content     the content of upload file
+     * @param contentType the content type of upload file
+     */
+    public Mono<URI> upload(String bucketName, String uploadPath, Publisher<DataBuffer> content, String contentType) {
+        return Mono.fromCallable(() -> delegate.prepareUpload(bucketName, uploadPath))
+                .subscribeOn(scheduler)
+                .flatMap(path -> Mono.using(
+                        () -> delegate.getMultipartUploader().openSession(bucketName, path, contentType),
+                        session -> Flux.from(content)
+                                .publishOn(scheduler)
+                                .doOnNext(dataBuffer -> write(session, dataBuffer))
+                                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                                .then(Mono.fromCallable(session::complete)),
+                        // the cancelling thread must not wait for the write in progress on the scheduler
+                        session -> scheduler.schedule(session::abort))
+                        .map(response -> {
+                            delegate.invalidateCachedFile(bucketName, path);
+                            return delegate.getFileUrl(bucketName, path);
+                        }))
+                .onErrorMap(e -> !(e instanceof MinIOExecuteException), e -> {
+                    logger.error("MinIO upload file of bucket name:{} and upload path:{} failed:{}",
+                            bucketName, uploadPath, e.getMessage());
+                    return new MinIOExecuteException(e);
+                });
+    }
+
+
+    private void write(MinIOMultipartUploader.Session session, DataBuffer dataBuffer) {
+        try {
+            session.write(dataBuffer.asByteBuffer());
+        } catch (Exception e) {
+            throw Exceptions.propagate(e);
+        } finally {
+            DataBufferUtils.release(dataBuffer);
+        }
+    }
+
+}
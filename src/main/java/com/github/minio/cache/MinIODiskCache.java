@@ -0,0 +1,525 @@
+package com.github.minio.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MinIODiskCache
+ *
+ * A size bounded local disk cache of downloaded files with least recently used eviction,every cached file
+ * records the etag of object so it is served only while the etag is still the one of server.The cached
+ * files are read through the file channel,copying to a local path is done by the kernel with transferTo.
+ * Every cache keeps its files in its own subdirectory locked until the cache is closed,so several processes
+ * can share the directory,the subdirectory is removed on close and the ones left by stopped processes
+ * are removed on start
+ *
+ * @author echils
+ */
+public class MinIODiskCache implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MinIODiskCache.class);
+
+    private static final String FILE_SUFFIX = ".minio-cache";
+
+    private static final String TEMP_SUFFIX = FILE_SUFFIX + ".tmp";
+
+    /**
+     * The prefix of the subdirectory of a cache
+     */
+    private static final String INSTANCE_PREFIX = "instance-";
+
+    /**
+     * The lock file held while the subdirectory or the shared directory is in use
+     */
+    private static final String LOCK_FILE = ".lock";
+
+    /**
+     * Serialize the caches of this process on the lock of shared directory,the file lock is held per process
+     */
+    private static final Object DIRECTORY_MONITOR = new Object();
+
+    /**
+     * The subdirectories locked by this process,their lock files are not opened again until the cache is
+     * closed since closing any channel of the file releases the lock of process
+     */
+    private static final Set<Path> LOCKED_INSTANCES = new HashSet<>();
+
+    private final Path root;
+
+    private final Path directory;
+
+    /**
+     * The channel holding the lock of subdirectory,the lock is released when the cache is closed
+     */
+    private final FileChannel lockChannel;
+
+    /**
+     * The max total size of cached files,the unit is byte
+     */
+    private final long capacity;
+
+    /**
+     * The max size of one cached file,the unit is byte
+     */
+    private final long maxObjectSize;
+
+    /**
+     * The time a revalidated file is served without revalidating,the unit is millisecond
+     */
+    private final long revalidateInterval;
+
+    /**
+     * The buckets whose files are cached,empty means all buckets
+     */
+    private final Set<String> buckets;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalSize;
+
+    private volatile boolean closed;
+
+    private final MinIOLoadGenerations loadGenerations = new MinIOLoadGenerations();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    public MinIODiskCache(File directory, long capacity, long maxObjectSize,
+                          long revalidateInterval, Collection<String> buckets) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.maxObjectSize = Math.min(capacity, maxObjectSize);
+        this.revalidateInterval = Math.max(0, revalidateInterval);
+        this.buckets = buckets == null ? new HashSet<>() : new HashSet<>(buckets);
+        this.root = directory.toPath();
+        this.directory = root.resolve(INSTANCE_PREFIX + UUID.randomUUID());
+        try {
+            Files.createDirectories(root);
+            synchronized (DIRECTORY_MONITOR) {
+                try (FileChannel rootChannel = FileChannel.open(root.resolve(LOCK_FILE),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    FileLock rootLock = rootChannel.lock();
+                    try {
+                        cleanUp(root);
+                        Files.createDirectories(this.directory);
+                        this.lockChannel = FileChannel.open(this.directory.resolve(LOCK_FILE),
+                                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                        lockChannel.lock();
+                        LOCKED_INSTANCES.add(this.directory.toAbsolutePath());
+                    } finally {
+                        rootLock.release();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Create disk cache directory " + directory + " failed", e);
+        }
+    }
+
+
+    /**
+     * Whether the files of bucket are cached
+     *
+     * @param bucketName the name of bucket
+     */
+    public boolean isEnabled(String bucketName) {
+        return !closed && (buckets.isEmpty() || buckets.contains(bucketName));
+    }
+
+
+    /**
+     * Whether the file of size can be cached
+     *
+     * @param size the size of file,the unit is byte
+     */
+    public boolean isCacheable(long size) {
+        return size >= 0 && size <= maxObjectSize;
+    }
+
+
+    /**
+     * Get the cached file if it was revalidated within the revalidate interval,otherwise return null
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    public Entry getIfFresh(String bucketName, String filename) {
+        if (revalidateInterval == 0) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(key(bucketName, filename));
+            if (entry != null && entry.validatedAt + revalidateInterval > System.currentTimeMillis()) {
+                hitCount.incrementAndGet();
+                return entry;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Get the cached file if its etag is the current etag of object,otherwise return null
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     * @param etag       the current etag of object
+     */
+    public Entry getIfMatch(String bucketName, String filename, String etag) {
+        if (closed) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(key(bucketName, filename));
+            if (entry != null && etag != null && etag.equals(entry.etag)) {
+                entry.validatedAt = System.currentTimeMillis();
+                hitCount.incrementAndGet();
+                return entry;
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+
+    /**
+     * Cache the content of file,the content is written to a temporary file first so the readers of the
+     * replaced file are not affected.Return null without caching when the cache is closed or the file is
+     * invalidated meanwhile
+     *
+     * @param bucketName  the name of bucket
+     * @param filename    the name of file
+     * @param etag        the etag of object
+     * @param inputStream the content of file
+     */
+    public Entry put(String bucketName, String filename, String etag, InputStream inputStream) throws IOException {
+        if (closed) {
+            return null;
+        }
+        String key = key(bucketName, filename);
+        String name = UUID.randomUUID().toString();
+        Path temp = directory.resolve(name + TEMP_SUFFIX);
+        Path path = directory.resolve(name + FILE_SUFFIX);
+        long generation;
+        synchronized (entries) {
+            generation = loadGenerations.begin(bucketName, key);
+        }
+        boolean ended = false;
+        boolean published = false;
+        try {
+            long size = Files.copy(inputStream, temp);
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            Entry entry = new Entry(bucketName, filename, etag, path, size);
+            synchronized (entries) {
+                ended = true;
+                if (!loadGenerations.end(key, generation)) {
+                    return null;
+                }
+                published = true;
+                Entry replaced = entries.put(key, entry);
+                if (replaced != null) {
+                    remove(replaced);
+                }
+                totalSize += size;
+                evict();
+            }
+            return entry;
+        } catch (NoSuchFileException e) {
+            if (closed) {
+                // the directory is removed by close meanwhile
+                return null;
+            }
+            throw e;
+        } finally {
+            if (!ended) {
+                synchronized (entries) {
+                    loadGenerations.end(key, generation);
+                }
+            }
+            if (!published) {
+                Files.deleteIfExists(path);
+            }
+            Files.deleteIfExists(temp);
+        }
+    }
+
+
+    /**
+     * Open the cached file,return null if the file has been evicted meanwhile
+     *
+     * @param entry {@link Entry}
+     */
+    public InputStream open(Entry entry) throws IOException {
+        try {
+            return Channels.newInputStream(FileChannel.open(entry.path, StandardOpenOption.READ));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Copy the cached file to the target with transferTo,return false if the file has been evicted meanwhile
+     *
+     * @param entry  {@link Entry}
+     * @param target the target file
+     */
+    public boolean copyTo(Entry entry, File target) throws IOException {
+        FileChannel source;
+        try {
+            source = FileChannel.open(entry.path, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        try (FileChannel in = source;
+             FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Discard the cached file
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    public void invalidate(String bucketName, String filename) {
+        synchronized (entries) {
+            String key = key(bucketName, filename);
+            loadGenerations.invalidate(key);
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                remove(entry);
+            }
+        }
+    }
+
+
+    /**
+     * Discard all cached files of bucket
+     *
+     * @param bucketName the name of bucket
+     */
+    public void invalidateBucket(String bucketName) {
+        synchronized (entries) {
+            loadGenerations.invalidateBucket(bucketName);
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.bucketName.equals(bucketName)) {
+                    iterator.remove();
+                    remove(entry);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Discard all cached files
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            loadGenerations.invalidateAll();
+            entries.values().forEach(this::remove);
+            entries.clear();
+        }
+    }
+
+
+    /**
+     * The number of cached files
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+
+    /**
+     * The total size of cached files,the unit is byte
+     */
+    public long totalSize() {
+        synchronized (entries) {
+            return totalSize;
+        }
+    }
+
+
+    /**
+     * The number of downloads served from the cached file
+     */
+    public long hitCount() {
+        return hitCount.get();
+    }
+
+
+    /**
+     * The number of downloads which found no valid cached file
+     */
+    public long missCount() {
+        return missCount.get();
+    }
+
+
+    /**
+     * Discard all cached files,release the lock of subdirectory and remove it,the files are no longer cached
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        synchronized (entries) {
+            loadGenerations.invalidateAll();
+            entries.clear();
+            totalSize = 0;
+        }
+        synchronized (DIRECTORY_MONITOR) {
+            try (FileChannel rootChannel = FileChannel.open(root.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock rootLock = rootChannel.lock();
+                try {
+                    lockChannel.close();
+                    delete(directory);
+                } finally {
+                    rootLock.release();
+                }
+            } catch (IOException e) {
+                logger.warn("MinIO remove disk cache directory:{} failed:{}", directory, e.getMessage());
+            } finally {
+                LOCKED_INSTANCES.remove(directory.toAbsolutePath());
+            }
+        }
+    }
+
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (totalSize > capacity && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            remove(eldest);
+        }
+    }
+
+
+    private void remove(Entry entry) {
+        totalSize -= entry.size;
+        try {
+            Files.deleteIfExists(entry.path);
+        } catch (IOException e) {
+            logger.warn("MinIO delete cached file:{} failed:{}", entry.path, e.getMessage());
+        }
+    }
+
+
+    /**
+     * Remove the subdirectories whose lock is not held,the caller holds the lock of shared directory
+     */
+    private static void cleanUp(Path root) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, INSTANCE_PREFIX + "*")) {
+            for (Path instance : stream) {
+                Path lockFile = instance.resolve(LOCK_FILE);
+                if (LOCKED_INSTANCES.contains(instance.toAbsolutePath()) || !Files.isRegularFile(lockFile)) {
+                    continue;
+                }
+                try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+                    FileLock lock = channel.tryLock();
+                    if (lock == null) {
+                        continue;
+                    }
+                    lock.release();
+                }
+                delete(instance);
+            }
+        }
+    }
+
+
+    private static void delete(Path instance) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(instance)) {
+            for (Path path : stream) {
+                Files.deleteIfExists(path);
+            }
+        }
+        Files.deleteIfExists(instance);
+    }
+
+
+    private static String key(String bucketName, String filename) {
+        return bucketName + "/" + filename;
+    }
+
+
+    public static class Entry {
+
+        private final String bucketName;
+
+        private final String filename;
+
+        private final String etag;
+
+        private final Path path;
+
+        private final long size;
+
+        private volatile long validatedAt;
+
+        private Entry(String bucketName, String filename, String etag, Path path, long size) {
+            this.bucketName = bucketName;
+            this.filename = filename;
+            this.etag = etag;
+            this.path = path;
+            this.size = size;
+            this.validatedAt = System.currentTimeMillis();
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+
+}
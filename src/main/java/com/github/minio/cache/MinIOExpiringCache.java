@@ -0,0 +1,232 @@
+package com.github.minio.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * MinIOExpiringCache
+ *
+ * A size bounded cache with least recently used eviction,every entry expires after its time to live.
+ * A value loaded outside the cache is only cached when no entry was invalidated since the load began,
+ * so a load racing with an invalidation cannot bring the discarded value back
+ *
+ * @author echils
+ */
+public class MinIOExpiringCache<K, V> {
+
+    /**
+     * The default time to live of entry,the unit is millisecond
+     */
+    private final long expireMillis;
+
+    private final BoundedMap<K, Entry<V>> entries;
+
+    /**
+     * The number of invalidations,guarded by the lock of entries
+     */
+    private long invalidations;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    public MinIOExpiringCache(int maximumSize, long expireMillis) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.expireMillis = expireMillis;
+        this.entries = new BoundedMap<>(maximumSize);
+    }
+
+
+    /**
+     * Get the value if present and not expired,otherwise return null
+     *
+     * @param key the key of entry
+     */
+    public V getIfPresent(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expireAt > System.currentTimeMillis()) {
+                hitCount.incrementAndGet();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+
+    /**
+     * Get the value,load and cache it with the default time to live when absent or expired
+     *
+     * @param key    the key of entry
+     * @param loader the loader of value,it runs outside the lock so concurrent misses may load twice
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value == null) {
+            long loadStamp = beginLoad();
+            value = loader.apply(key);
+            if (value != null) {
+                putLoaded(key, value, loadStamp);
+            }
+        }
+        return value;
+    }
+
+
+    /**
+     * Mark the beginning of loading a value outside the cache
+     *
+     * @return the stamp passed to {@link #putLoaded(Object, Object, long)}
+     */
+    public long beginLoad() {
+        synchronized (entries) {
+            return invalidations;
+        }
+    }
+
+
+    /**
+     * Cache the loaded value with the default time to live unless an entry was invalidated since the load began
+     *
+     * @param key       the key of entry
+     * @param value     the value of entry
+     * @param loadStamp the stamp returned by {@link #beginLoad()}
+     * @return whether the value is cached
+     */
+    public boolean putLoaded(K key, V value, long loadStamp) {
+        if (expireMillis <= 0) {
+            return false;
+        }
+        synchronized (entries) {
+            if (invalidations != loadStamp) {
+                return false;
+            }
+            entries.put(key, new Entry<>(value, System.currentTimeMillis() + expireMillis));
+            return true;
+        }
+    }
+
+
+    /**
+     * Cache the value with the default time to live
+     *
+     * @param key   the key of entry
+     * @param value the value of entry
+     */
+    public void put(K key, V value) {
+        put(key, value, expireMillis);
+    }
+
+
+    /**
+     * Cache the value with custom time to live
+     *
+     * @param key          the key of entry
+     * @param value        the value of entry
+     * @param expireMillis the time to live of entry,the unit is millisecond
+     */
+    public void put(K key, V value, long expireMillis) {
+        if (expireMillis <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, System.currentTimeMillis() + expireMillis));
+        }
+    }
+
+
+    /**
+     * Discard the entry of key
+     *
+     * @param key the key of entry
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            invalidations++;
+            entries.remove(key);
+        }
+    }
+
+
+    /**
+     * Discard all entries
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidations++;
+            entries.clear();
+        }
+    }
+
+
+    /**
+     * The number of cached entries,may include expired entries which have not been cleaned up
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+
+    /**
+     * The number of lookups which found a live entry
+     */
+    public long hitCount() {
+        return hitCount.get();
+    }
+
+
+    /**
+     * The number of lookups which found no live entry
+     */
+    public long missCount() {
+        return missCount.get();
+    }
+
+
+    private static class Entry<V> {
+
+        private final V value;
+
+        private final long expireAt;
+
+        private Entry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+
+    /**
+     * The map in access order which removes the least recently used entry beyond the maximum size
+     */
+    private static final class BoundedMap<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The max number of entries
+         */
+        private final int maximumSize;
+
+        private BoundedMap(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maximumSize;
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.github.minio.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MinIOLoadGenerations
+ *
+ * The generations of the files being loaded into a cache,every invalidation bumps the generation of the
+ * files it discards so a load which started before the invalidation is not published afterwards.
+ * Only the files with a load in progress are tracked,the caller guards every method with the lock of cache
+ *
+ * @author echils
+ */
+class MinIOLoadGenerations {
+
+    private final Map<String, Generation> generations = new HashMap<>();
+
+
+    /**
+     * Record a load of file and return the generation it started in
+     *
+     * @param bucketName the name of bucket
+     * @param key        the key of file
+     */
+    long begin(String bucketName, String key) {
+        Generation generation = generations.computeIfAbsent(key, k -> new Generation(bucketName));
+        generation.loads++;
+        return generation.value;
+    }
+
+
+    /**
+     * Finish a load of file,return whether the file is not invalidated since the load started
+     *
+     * @param key     the key of file
+     * @param started the generation returned by {@link #begin(String, String)}
+     */
+    boolean end(String key, long started) {
+        Generation generation = generations.get(key);
+        if (--generation.loads == 0) {
+            generations.remove(key);
+        }
+        return generation.value == started;
+    }
+
+
+    /**
+     * Bump the generation of file
+     *
+     * @param key the key of file
+     */
+    void invalidate(String key) {
+        Generation generation = generations.get(key);
+        if (generation != null) {
+            generation.value++;
+        }
+    }
+
+
+    /**
+     * Bump the generations of the files of bucket
+     *
+     * @param bucketName the name of bucket
+     */
+    void invalidateBucket(String bucketName) {
+        for (Generation generation : generations.values()) {
+            if (generation.bucketName.equals(bucketName)) {
+                generation.value++;
+            }
+        }
+    }
+
+
+    /**
+     * Bump the generations of all files
+     */
+    void invalidateAll() {
+        generations.values().forEach(generation -> generation.value++);
+    }
+
+
+    private static class Generation {
+
+        private final String bucketName;
+
+        private long value;
+
+        /**
+         * The number of loads in progress
+         */
+        private int loads;
+
+        private Generation(String bucketName) {
+            this.bucketName = bucketName;
+        }
+    }
+
+}
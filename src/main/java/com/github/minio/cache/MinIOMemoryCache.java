@@ -0,0 +1,732 @@
+package com.github.minio.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MinIOMemoryCache
+ *
+ * A size bounded in-memory cache of small files,the content is stored off-heap in direct byte buffer slabs
+ * so a large cache does not burden the garbage collector.Every slab is carved into the slots of one size
+ * class,every size class evicts its least recently used file and a new file is admitted only when the
+ * frequency sketch says it is accessed more often than the evicted one,so a scan of cold files cannot
+ * flush the hot files.When all slabs are allocated a size class takes over the least recently used slab
+ * of another class if that slab is colder than its own eldest file,so the slabs follow the sizes in use.
+ * The content is streamed out of the slot and loaded into the slot without a copy on the heap,a slot
+ * being read is reused only after its stream is closed or fully read.Every cached file records the etag
+ * of object so it is served only while the etag is still the one of server
+ *
+ * @author echils
+ */
+public class MinIOMemoryCache {
+
+    /**
+     * The max size of one slab,it bounds the max size of cached file,the unit is byte
+     */
+    private static final int SLAB_SIZE = 1024 * 1024;
+
+    /**
+     * The slot size of the smallest size class,the slot size doubles for every next class
+     */
+    private static final int MIN_SLOT_SIZE = 1024;
+
+    /**
+     * The size of one slab,smaller than {@link #SLAB_SIZE} when the capacity is,the unit is byte
+     */
+    private final int slabSize;
+
+    /**
+     * The max number of slabs,the direct memory used by the cache is bounded by this number of slabs
+     */
+    private final int maxSlabs;
+
+    /**
+     * The max size of one cached file,the unit is byte
+     */
+    private final int maxObjectSize;
+
+    /**
+     * The time a revalidated file is served without revalidating,the unit is millisecond
+     */
+    private final long revalidateInterval;
+
+    private final List<Slab> slabs = new ArrayList<>();
+
+    private final SizeClass[] sizeClasses;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private final FrequencySketch sketch;
+
+    private final MinIOLoadGenerations loadGenerations = new MinIOLoadGenerations();
+
+    private long usedBytes;
+
+    /**
+     * The logical time of the accesses
+     */
+    private long clock;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private final AtomicLong rejectionCount = new AtomicLong();
+
+    private final AtomicLong slabMoveCount = new AtomicLong();
+
+    public MinIOMemoryCache(long capacity, int maxObjectSize, long revalidateInterval) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.slabSize = (int) Math.min(SLAB_SIZE, Math.max(MIN_SLOT_SIZE, Long.highestOneBit(capacity)));
+        this.maxSlabs = (int) Math.max(1, Math.min(Integer.MAX_VALUE, capacity / slabSize));
+        this.maxObjectSize = Math.max(0, Math.min(slabSize, maxObjectSize));
+        this.revalidateInterval = Math.max(0, revalidateInterval);
+        List<SizeClass> classes = new ArrayList<>();
+        for (int slotSize = MIN_SLOT_SIZE; slotSize <= slabSize; slotSize <<= 1) {
+            classes.add(new SizeClass(slotSize));
+        }
+        this.sizeClasses = classes.toArray(new SizeClass[0]);
+        this.sketch = new FrequencySketch((long) maxSlabs * slabSize / MIN_SLOT_SIZE);
+    }
+
+
+    /**
+     * Whether the file of size can be cached
+     *
+     * @param size the size of file,the unit is byte
+     */
+    public boolean isCacheable(long size) {
+        return size >= 0 && size <= maxObjectSize;
+    }
+
+
+    /**
+     * Open the content if it was revalidated within the revalidate interval,otherwise return null
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    public InputStream getIfFresh(String bucketName, String filename) {
+        if (revalidateInterval == 0) {
+            return null;
+        }
+        String key = key(bucketName, filename);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.validatedAt + revalidateInterval > System.currentTimeMillis()) {
+                sketch.increment(key);
+                hitCount.incrementAndGet();
+                return open(entry);
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Open the content if its etag is the current etag of object,otherwise return null
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     * @param etag       the current etag of object
+     */
+    public InputStream getIfMatch(String bucketName, String filename, String etag) {
+        String key = key(bucketName, filename);
+        synchronized (this) {
+            sketch.increment(key);
+            Entry entry = entries.get(key);
+            if (entry != null && etag != null && etag.equals(entry.etag)) {
+                entry.validatedAt = System.currentTimeMillis();
+                hitCount.incrementAndGet();
+                return open(entry);
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+
+    /**
+     * Cache the content of file,the content is dropped when it is too large or the admission
+     * rejects it in favor of a more frequently accessed file
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     * @param etag       the etag of object
+     * @param content    the content of file
+     */
+    public boolean put(String bucketName, String filename, String etag, byte[] content) {
+        try (InputStream inputStream = put(bucketName, filename, etag, new ByteArrayInputStream(content), content.length)) {
+            return inputStream != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+
+    /**
+     * Load the content of file into a slot and open the cached content,return null without reading
+     * the stream when the file is too large or the admission rejects it.The stream is read outside
+     * the lock of cache and is not closed,the content is not cached when the file is invalidated meanwhile
+     *
+     * @param bucketName  the name of bucket
+     * @param filename    the name of file
+     * @param etag        the etag of object
+     * @param inputStream the content of file
+     * @param length      the length of content
+     */
+    public InputStream put(String bucketName, String filename, String etag, InputStream inputStream,
+                           long length) throws IOException {
+        if (!isCacheable(length)) {
+            return null;
+        }
+        String key = key(bucketName, filename);
+        Entry entry;
+        long generation;
+        synchronized (this) {
+            Entry replaced = entries.remove(key);
+            if (replaced != null) {
+                release(replaced);
+            }
+            SizeClass sizeClass = sizeClassOf((int) length);
+            Slot slot = allocate(sizeClass, key);
+            if (slot == null) {
+                rejectionCount.incrementAndGet();
+                return null;
+            }
+            entry = new Entry(key, bucketName, etag, slot, (int) length, sizeClass);
+            // the slab of a slot being loaded is not taken over
+            slot.slab.pinned++;
+            generation = loadGenerations.begin(bucketName, key);
+        }
+        boolean loaded = false;
+        try {
+            ByteBuffer buffer = entry.slot.buffer.duplicate();
+            buffer.clear();
+            buffer.limit(entry.length);
+            ReadableByteChannel channel = Channels.newChannel(inputStream);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("Unexpected end of content at " + buffer.position());
+                }
+            }
+            loaded = true;
+        } finally {
+            if (!loaded) {
+                synchronized (this) {
+                    entry.slot.slab.pinned--;
+                    loadGenerations.end(key, generation);
+                    entry.sizeClass.free.push(entry.slot);
+                }
+            }
+        }
+        synchronized (this) {
+            entry.slot.slab.pinned--;
+            if (!loadGenerations.end(key, generation)) {
+                // the file was invalidated while loading,the content is only served to this caller
+                // and the slot is reused once the stream is closed
+                entry.released = true;
+                return open(entry);
+            }
+            Entry replaced = entries.remove(key);
+            if (replaced != null) {
+                release(replaced);
+            }
+            entries.put(key, entry);
+            entry.sizeClass.entries.put(key, entry);
+            usedBytes += entry.length;
+            return open(entry);
+        }
+    }
+
+
+    /**
+     * Discard the cached file
+     *
+     * @param bucketName the name of bucket
+     * @param filename   the name of file
+     */
+    public synchronized void invalidate(String bucketName, String filename) {
+        String key = key(bucketName, filename);
+        loadGenerations.invalidate(key);
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            release(entry);
+        }
+    }
+
+
+    /**
+     * Discard all cached files of bucket
+     *
+     * @param bucketName the name of bucket
+     */
+    public synchronized void invalidateBucket(String bucketName) {
+        loadGenerations.invalidateBucket(bucketName);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.bucketName.equals(bucketName)) {
+                iterator.remove();
+                release(entry);
+            }
+        }
+    }
+
+
+    /**
+     * Discard all cached files,the slabs are kept for the next files
+     */
+    public synchronized void invalidateAll() {
+        loadGenerations.invalidateAll();
+        entries.values().forEach(this::release);
+        entries.clear();
+    }
+
+
+    /**
+     * The number of cached files
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+
+    /**
+     * The total size of cached content,the unit is byte
+     */
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+
+    /**
+     * The total size of allocated slabs,the unit is byte
+     */
+    public synchronized long allocatedBytes() {
+        return (long) slabs.size() * slabSize;
+    }
+
+
+    /**
+     * The number of downloads served from the cached content
+     */
+    public long hitCount() {
+        return hitCount.get();
+    }
+
+
+    /**
+     * The number of downloads which found no valid cached content
+     */
+    public long missCount() {
+        return missCount.get();
+    }
+
+
+    /**
+     * The ratio of hits to all lookups,0 when nothing has been looked up
+     */
+    public double hitRate() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+
+    /**
+     * The number of files evicted to admit a more frequently accessed file
+     */
+    public long evictionCount() {
+        return evictionCount.get();
+    }
+
+
+    /**
+     * The number of files not admitted because the evicted file would be accessed more often
+     */
+    public long rejectionCount() {
+        return rejectionCount.get();
+    }
+
+
+    /**
+     * The number of slabs taken over by another size class
+     */
+    public long slabMoveCount() {
+        return slabMoveCount.get();
+    }
+
+
+    private Slot allocate(SizeClass sizeClass, String key) {
+        if (!sizeClass.free.isEmpty()) {
+            return sizeClass.free.pop();
+        }
+        if (slabs.size() < maxSlabs) {
+            Slab slab = new Slab(ByteBuffer.allocateDirect(slabSize));
+            slabs.add(slab);
+            carve(slab, sizeClass);
+            return sizeClass.free.pop();
+        }
+        Iterator<Entry> iterator = sizeClass.entries.values().iterator();
+        Entry victim = iterator.hasNext() ? iterator.next() : null;
+        Slab coldest = coldestSlab(sizeClass);
+        if (coldest != null && (victim == null || coldest.accessedAt < victim.accessedAt)) {
+            move(coldest, sizeClass);
+            return sizeClass.free.pop();
+        }
+        if (victim == null || victim.readers > 0 || sketch.frequency(key) <= sketch.frequency(victim.key)) {
+            return null;
+        }
+        entries.remove(victim.key);
+        release(victim);
+        evictionCount.incrementAndGet();
+        return sizeClass.free.pop();
+    }
+
+
+    /**
+     * The least recently used slab of the other size classes which is not being read or loaded
+     */
+    private Slab coldestSlab(SizeClass sizeClass) {
+        Slab coldest = null;
+        for (Slab slab : slabs) {
+            if (slab.owner != sizeClass && slab.pinned == 0 && (coldest == null || slab.accessedAt < coldest.accessedAt)) {
+                coldest = slab;
+            }
+        }
+        return coldest;
+    }
+
+
+    /**
+     * Evict the files of slab and carve it into the slots of the size class
+     */
+    private void move(Slab slab, SizeClass sizeClass) {
+        SizeClass owner = slab.owner;
+        Iterator<Entry> iterator = owner.entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.slot.slab == slab) {
+                iterator.remove();
+                entries.remove(entry.key);
+                usedBytes -= entry.length;
+                evictionCount.incrementAndGet();
+            }
+        }
+        owner.free.removeIf(slot -> slot.slab == slab);
+        carve(slab, sizeClass);
+        slabMoveCount.incrementAndGet();
+    }
+
+
+    private void carve(Slab slab, SizeClass sizeClass) {
+        slab.owner = sizeClass;
+        slab.accessedAt = clock;
+        for (int offset = 0; offset + sizeClass.slotSize <= slabSize; offset += sizeClass.slotSize) {
+            ByteBuffer buffer = slab.buffer.duplicate();
+            buffer.limit(offset + sizeClass.slotSize).position(offset);
+            sizeClass.free.push(new Slot(slab, buffer.slice()));
+        }
+    }
+
+
+    /**
+     * Remove the entry from its size class,the slot is reused at once unless it is being read
+     */
+    private void release(Entry entry) {
+        entry.sizeClass.entries.remove(entry.key, entry);
+        usedBytes -= entry.length;
+        if (entry.readers > 0) {
+            entry.released = true;
+        } else {
+            entry.sizeClass.free.push(entry.slot);
+        }
+    }
+
+
+    /**
+     * Open the stream of cached content,the slot is pinned until the stream is closed or fully read
+     */
+    private InputStream open(Entry entry) {
+        // move the entry to the tail of access order
+        entry.sizeClass.entries.get(entry.key);
+        entry.accessedAt = ++clock;
+        entry.slot.slab.accessedAt = entry.accessedAt;
+        entry.readers++;
+        entry.slot.slab.pinned++;
+        ByteBuffer buffer = entry.slot.buffer.duplicate();
+        buffer.clear();
+        buffer.limit(entry.length);
+        return new SlotInputStream(entry, buffer);
+    }
+
+
+    private synchronized void unpin(Entry entry) {
+        entry.readers--;
+        entry.slot.slab.pinned--;
+        if (entry.released && entry.readers == 0) {
+            entry.released = false;
+            entry.sizeClass.free.push(entry.slot);
+        }
+    }
+
+
+    private SizeClass sizeClassOf(int size) {
+        for (SizeClass sizeClass : sizeClasses) {
+            if (size <= sizeClass.slotSize) {
+                return sizeClass;
+            }
+        }
+        throw new IllegalArgumentException("Size " + size + " exceeds the slab size");
+    }
+
+
+    private static String key(String bucketName, String filename) {
+        return bucketName + "/" + filename;
+    }
+
+
+    private static class Slab {
+
+        private final ByteBuffer buffer;
+
+        private SizeClass owner;
+
+        /**
+         * The logical time of the latest access to a file of the slab
+         */
+        private long accessedAt;
+
+        /**
+         * The number of streams and loads using the slots of the slab
+         */
+        private int pinned;
+
+        private Slab(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+
+    private static class Slot {
+
+        private final Slab slab;
+
+        private final ByteBuffer buffer;
+
+        private Slot(Slab slab, ByteBuffer buffer) {
+            this.slab = slab;
+            this.buffer = buffer;
+        }
+    }
+
+
+    private static class SizeClass {
+
+        private final int slotSize;
+
+        private final ArrayDeque<Slot> free = new ArrayDeque<>();
+
+        /**
+         * The entries of the size class in access order,the eldest one is the eviction victim
+         */
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private SizeClass(int slotSize) {
+            this.slotSize = slotSize;
+        }
+    }
+
+
+    private static class Entry {
+
+        private final String key;
+
+        private final String bucketName;
+
+        private final String etag;
+
+        private final Slot slot;
+
+        private final int length;
+
+        private final SizeClass sizeClass;
+
+        private long validatedAt;
+
+        private long accessedAt;
+
+        /**
+         * The number of open streams of the content
+         */
+        private int readers;
+
+        /**
+         * Whether the entry is removed while being read,the slot is reused after the last stream is closed
+         */
+        private boolean released;
+
+        private Entry(String key, String bucketName, String etag, Slot slot, int length, SizeClass sizeClass) {
+            this.key = key;
+            this.bucketName = bucketName;
+            this.etag = etag;
+            this.slot = slot;
+            this.length = length;
+            this.sizeClass = sizeClass;
+            this.validatedAt = System.currentTimeMillis();
+        }
+    }
+
+
+    /**
+     * The stream reading the slot directly,the slot is unpinned once when the stream is closed or fully read
+     */
+    private class SlotInputStream extends InputStream {
+
+        private final Entry entry;
+
+        private final ByteBuffer buffer;
+
+        private boolean unpinned;
+
+        private SlotInputStream(Entry entry, ByteBuffer buffer) {
+            this.entry = entry;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            if (!buffer.hasRemaining()) {
+                close();
+                return -1;
+            }
+            return buffer.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                close();
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public void close() {
+            if (!unpinned) {
+                unpinned = true;
+                buffer.limit(buffer.position());
+                unpin(entry);
+            }
+        }
+    }
+
+
+    /**
+     * A count-min sketch of 4-bit counters estimating the access frequency of keys,all counters are
+     * halved periodically so the frequency of keys which are no longer accessed decays
+     */
+    private static class FrequencySketch {
+
+        private static final int DEPTH = 4;
+
+        private static final int MAX_COUNT = 15;
+
+        private static final int[] SEEDS = {0x97cb3127, 0xb3a4fe4b, 0x6c4f0e3d, 0x2c1b3c6d};
+
+        private final byte[][] table;
+
+        private final int mask;
+
+        private final long sampleSize;
+
+        private long additions;
+
+        private FrequencySketch(long expectedEntries) {
+            int width = Integer.highestOneBit((int) Math.max(1024, Math.min(1 << 20, expectedEntries)) - 1) << 1;
+            this.table = new byte[DEPTH][width];
+            this.mask = width - 1;
+            this.sampleSize = 10L * width;
+        }
+
+        private int frequency(String key) {
+            int hash = spread(key.hashCode());
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < DEPTH; i++) {
+                frequency = Math.min(frequency, table[i][index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private void increment(String key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < DEPTH; i++) {
+                int index = index(hash, i);
+                if (table[i][index] < MAX_COUNT) {
+                    table[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            for (byte[] row : table) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+
+        private int index(int hash, int i) {
+            int h = (hash ^ SEEDS[i]) * 0x9e3779b9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private static int spread(int hash) {
+            hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+            return (hash >>> 16) ^ hash;
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.github.minio.event;
+
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+/**
+ * MinIOEvent
+ *
+ * The notification of an object created or removed
+ *
+ * @author echils
+ */
+@Data
+public class MinIOEvent {
+
+    /**
+     * The name of bucket
+     */
+    private String bucketName;
+
+    /**
+     * The name of file
+     */
+    private String filename;
+
+    /**
+     * The type of event,such as s3:ObjectCreated:Put
+     */
+    private String eventType;
+
+    /**
+     * The time of event
+     */
+    private ZonedDateTime eventTime;
+
+    /**
+     * The size of file,it is 0 when the file is removed
+     */
+    private long size;
+
+    /**
+     * The etag of file
+     */
+    private String etag;
+
+    /**
+     * The user metadata of file
+     */
+    private Map<String, String> userMetadata;
+
+
+    /**
+     * Whether the file is created or overwritten
+     */
+    public boolean isCreated() {
+        return eventType != null && eventType.startsWith("s3:ObjectCreated:");
+    }
+
+
+    /**
+     * Whether the file is removed
+     */
+    public boolean isRemoved() {
+        return eventType != null && eventType.startsWith("s3:ObjectRemoved:");
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.github.minio.event;
+
+import java.util.List;
+
+/**
+ * MinIOEventHandler
+ *
+ * Handle a batch of events,the events of one file are always handled in order
+ *
+ * @author echils
+ */
+@FunctionalInterface
+public interface MinIOEventHandler {
+
+    /**
+     * Handle the events
+     *
+     * @param events the batch of events
+     */
+    void handle(List<MinIOEvent> events) throws Exception;
+
+}
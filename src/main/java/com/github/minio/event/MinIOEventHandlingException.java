@@ -0,0 +1,34 @@
+package com.github.minio.event;
+
+import com.github.minio.MinIOExecuteException;
+
+/**
+ * MinIOEventHandlingException
+ *
+ * Thrown by the handler when only some events of the batch failed,the other events are counted as handled
+ *
+ * @author echils
+ */
+public class MinIOEventHandlingException extends MinIOExecuteException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number of failed events of the batch
+     */
+    private final int failedCount;
+
+    public MinIOEventHandlingException(String message, int failedCount, Throwable cause) {
+        super(message, cause);
+        this.failedCount = failedCount;
+    }
+
+
+    /**
+     * The number of failed events of the batch
+     */
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.github.minio.event;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * MinIOEventListener
+ *
+ * Mark a bean method to receive the bucket notifications,the method accepts a {@link MinIOEvent} or
+ * a {@link java.util.List} of {@link MinIOEvent} to receive the dispatched batch at once
+ *
+ * @author echils
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MinIOEventListener {
+
+    /**
+     * The name of bucket,the default bucket is used if empty
+     */
+    String bucket() default "";
+
+    /**
+     * Prefix of the file name
+     */
+    String prefix() default "";
+
+    /**
+     * Suffix of the file name
+     */
+    String suffix() default "";
+
+    /**
+     * The types of event,such as s3:ObjectCreated:* and s3:ObjectRemoved:*
+     */
+    String[] events() default {"s3:ObjectCreated:*"};
+
+}
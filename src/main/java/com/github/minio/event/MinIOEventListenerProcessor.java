@@ -0,0 +1,240 @@
+package com.github.minio.event;
+
+import com.github.minio.MinIOProperties;
+import com.github.minio.MinIOTemplate;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToLongFunction;
+
+/**
+ * MinIOEventListenerProcessor
+ *
+ * Find the methods annotated with {@link MinIOEventListener} and subscribe them to the bucket notifications
+ * when the application context starts,the subscriptions are closed when it stops
+ *
+ * @author echils
+ */
+public class MinIOEventListenerProcessor implements BeanPostProcessor, SmartLifecycle, BeanFactoryAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(MinIOEventListenerProcessor.class);
+
+    private final List<Endpoint> endpoints = new CopyOnWriteArrayList<>();
+
+    private final List<MinIOEventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * The counters of the closed subscriptions,so the counters of the processor never decrease
+     */
+    private long closedReceivedCount;
+
+    private long closedHandledCount;
+
+    private long closedFailedCount;
+
+    private long closedBlockedTime;
+
+    private long closedReconnectCount;
+
+    private BeanFactory beanFactory;
+
+    private volatile boolean running;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        if (!AnnotationUtils.isCandidateClass(targetClass, MinIOEventListener.class)) {
+            return bean;
+        }
+        Map<Method, MinIOEventListener> methods = MethodIntrospector.selectMethods(targetClass,
+                (MethodIntrospector.MetadataLookup<MinIOEventListener>) method ->
+                        AnnotatedElementUtils.findMergedAnnotation(method, MinIOEventListener.class));
+        methods.forEach((method, listener) -> {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            if (parameterTypes.length != 1 || !(parameterTypes[0] == MinIOEvent.class || parameterTypes[0] == List.class)) {
+                throw new IllegalStateException("MinIO event listener " + method + " must accept a MinIOEvent or a List of MinIOEvent");
+            }
+            Method invocable = AopUtils.selectInvocableMethod(method, bean.getClass());
+            ReflectionUtils.makeAccessible(invocable);
+            endpoints.add(new Endpoint(bean, invocable, listener, parameterTypes[0] == List.class));
+        });
+        return bean;
+    }
+
+    @Override
+    public void start() {
+        MinIOTemplate minIOTemplate = beanFactory.getBean(MinIOTemplate.class);
+        String defaultBucket = beanFactory.getBean(MinIOProperties.class).getDefaultBucket();
+        try {
+            for (Endpoint endpoint : endpoints) {
+                MinIOEventListener listener = endpoint.listener;
+                String bucketName = StringUtils.defaultIfEmpty(listener.bucket(), defaultBucket);
+                logger.info("MinIO event listener {} subscribe bucket:{},prefix:{},suffix:{}",
+                        endpoint.method, bucketName, listener.prefix(), listener.suffix());
+                subscriptions.add(minIOTemplate.listenEvents(bucketName, listener.prefix(), listener.suffix(),
+                        listener.events(), endpoint::handle));
+            }
+        } catch (RuntimeException e) {
+            logger.error("MinIO event listeners start failed,close the started subscriptions:{}", subscriptions.size());
+            closeSubscriptions();
+            throw e;
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeSubscriptions();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+
+    /**
+     * The number of received events of all subscriptions
+     */
+    public synchronized long receivedCount() {
+        return closedReceivedCount + sum(MinIOEventSubscription::receivedCount);
+    }
+
+
+    /**
+     * The number of events handled successfully of all subscriptions
+     */
+    public synchronized long handledCount() {
+        return closedHandledCount + sum(MinIOEventSubscription::handledCount);
+    }
+
+
+    /**
+     * The number of events whose handling failed of all subscriptions
+     */
+    public synchronized long failedCount() {
+        return closedFailedCount + sum(MinIOEventSubscription::failedCount);
+    }
+
+
+    /**
+     * The time the receiving is blocked by the full queues of all subscriptions,the unit is millisecond
+     */
+    public synchronized long blockedTime() {
+        return closedBlockedTime + sum(MinIOEventSubscription::blockedTime);
+    }
+
+
+    /**
+     * The number of reconnecting the notifications of all subscriptions
+     */
+    public synchronized long reconnectCount() {
+        return closedReconnectCount + sum(MinIOEventSubscription::reconnectCount);
+    }
+
+
+    /**
+     * The number of events waiting in the queues of all subscriptions
+     */
+    public long queued() {
+        return sum(MinIOEventSubscription::queued);
+    }
+
+
+    /**
+     * Close the subscriptions and keep their counters
+     */
+    private synchronized void closeSubscriptions() {
+        for (MinIOEventSubscription subscription : subscriptions) {
+            subscription.close();
+            closedReceivedCount += subscription.receivedCount();
+            closedHandledCount += subscription.handledCount();
+            closedFailedCount += subscription.failedCount();
+            closedBlockedTime += subscription.blockedTime();
+            closedReconnectCount += subscription.reconnectCount();
+        }
+        subscriptions.clear();
+    }
+
+
+    private long sum(ToLongFunction<MinIOEventSubscription> counter) {
+        return subscriptions.stream().mapToLong(counter).sum();
+    }
+
+
+    private static class Endpoint {
+
+        private final Object bean;
+
+        private final Method method;
+
+        private final MinIOEventListener listener;
+
+        private final boolean batch;
+
+        private Endpoint(Object bean, Method method, MinIOEventListener listener, boolean batch) {
+            this.bean = bean;
+            this.method = method;
+            this.listener = listener;
+            this.batch = batch;
+        }
+
+        /**
+         * Handle the batch,the listener of single event is invoked for every event even if some of them fail
+         */
+        private void handle(List<MinIOEvent> events) throws Exception {
+            if (batch) {
+                invoke(events);
+                return;
+            }
+            int failed = 0;
+            Exception failure = null;
+            for (MinIOEvent event : events) {
+                try {
+                    invoke(event);
+                } catch (Exception e) {
+                    failed++;
+                    failure = e;
+                    logger.error("MinIO event listener {} handle event:{} of file:{} failed:{}",
+                            method, event.getEventType(), event.getFilename(), e.getMessage(), e);
+                }
+            }
+            if (failed > 0) {
+                throw new MinIOEventHandlingException("MinIO event listener " + method + " failed "
+                        + failed + " of " + events.size() + " events", failed, failure);
+            }
+        }
+
+
+        private void invoke(Object argument) throws Exception {
+            try {
+                method.invoke(bean, argument);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getTargetException();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            }
+        }
+    }
+
+}
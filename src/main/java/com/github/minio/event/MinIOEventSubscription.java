@@ -0,0 +1,320 @@
+package com.github.minio.event;
+
+import com.github.minio.MinIOThreadFactory;
+import io.minio.CloseableIterator;
+import io.minio.ListenBucketNotificationArgs;
+import io.minio.MinioClient;
+import io.minio.Result;
+import io.minio.messages.Event;
+import io.minio.messages.NotificationRecords;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MinIOEventSubscription
+ *
+ * Receive the bucket notifications on a dedicated thread and dispatch them to the handler in batches.
+ * The events are partitioned by file name into bounded queues,one worker per queue,so the events of one
+ * file are handled in order.When a queue is full the receiving blocks and the server stops sending until
+ * the workers catch up,the blocked time is recorded.The notifications are reconnected with backoff when
+ * the connection breaks,the events of the disconnected period are lost
+ *
+ * @author echils
+ */
+public class MinIOEventSubscription implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MinIOEventSubscription.class);
+
+    private static final long MIN_RECONNECT_DELAY = 1000;
+
+    /**
+     * The max delay of reconnecting the notifications,the unit is millisecond
+     */
+    private static final long MAX_RECONNECT_DELAY = 30000;
+
+    private final MinioClient minioClient;
+
+    private final String bucketName;
+
+    private final ListenBucketNotificationArgs listenArgs;
+
+    private final MinIOEventHandler handler;
+
+    private final int batchSize;
+
+    private final List<BlockingQueue<MinIOEvent>> queues;
+
+    private final ExecutorService workers;
+
+    private Runnable connectListener;
+
+    private Runnable reconnectListener;
+
+    private volatile boolean closed;
+
+    private volatile Thread receiver;
+
+    private volatile CloseableIterator<Result<NotificationRecords>> notifications;
+
+    private final AtomicLong receivedCount = new AtomicLong();
+
+    private final AtomicLong handledCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final AtomicLong blockedTime = new AtomicLong();
+
+    private final AtomicLong reconnectCount = new AtomicLong();
+
+    /**
+     * @param minioClient   the client
+     * @param bucketName    the name of bucket
+     * @param prefix        prefix of the file name
+     * @param suffix        suffix of the file name
+     * @param events        the types of event
+     * @param handler       {@link MinIOEventHandler}
+     * @param parallelism   the number of workers
+     * @param queueCapacity the total capacity of the queues
+     * @param batchSize     the max number of events handled at once
+     */
+    public MinIOEventSubscription(MinioClient minioClient, String bucketName, String prefix, String suffix,
+                                  String[] events, MinIOEventHandler handler, int parallelism,
+                                  int queueCapacity, int batchSize) {
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+        this.listenArgs = ListenBucketNotificationArgs.builder().bucket(bucketName)
+                .prefix(StringUtils.defaultString(prefix)).suffix(StringUtils.defaultString(suffix)).events(events).build();
+        this.handler = handler;
+        this.batchSize = Math.max(1, batchSize);
+        int workerCount = Math.max(1, parallelism);
+        int capacity = Math.max(1, queueCapacity / workerCount);
+        this.queues = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            queues.add(new ArrayBlockingQueue<>(capacity));
+        }
+        this.workers = Executors.newFixedThreadPool(workerCount, new MinIOThreadFactory("minio-event-" + bucketName));
+    }
+
+
+    /**
+     * Run the listener every time the notifications are connected including the first time,such as listing
+     * the changes made before the notifications are received
+     *
+     * @param connectListener the listener of connecting
+     */
+    public MinIOEventSubscription onConnect(Runnable connectListener) {
+        this.connectListener = connectListener;
+        return this;
+    }
+
+
+    /**
+     * Run the listener after the notifications are reconnected,such as rescanning the missed changes
+     *
+     * @param reconnectListener the listener of reconnecting
+     */
+    public MinIOEventSubscription onReconnect(Runnable reconnectListener) {
+        this.reconnectListener = reconnectListener;
+        return this;
+    }
+
+
+    /**
+     * Start receiving and dispatching the events
+     */
+    public MinIOEventSubscription start() {
+        for (BlockingQueue<MinIOEvent> queue : queues) {
+            workers.execute(() -> dispatch(queue));
+        }
+        Thread thread = new MinIOThreadFactory("minio-event-receiver-" + bucketName).newThread(this::receive);
+        receiver = thread;
+        thread.start();
+        return this;
+    }
+
+
+    /**
+     * The number of received events
+     */
+    public long receivedCount() {
+        return receivedCount.get();
+    }
+
+
+    /**
+     * The number of events handled successfully
+     */
+    public long handledCount() {
+        return handledCount.get();
+    }
+
+
+    /**
+     * The number of events whose handling failed
+     */
+    public long failedCount() {
+        return failedCount.get();
+    }
+
+
+    /**
+     * The time the receiving is blocked by the full queues,the unit is millisecond
+     */
+    public long blockedTime() {
+        return blockedTime.get() / 1000000;
+    }
+
+
+    /**
+     * The number of reconnecting the notifications
+     */
+    public long reconnectCount() {
+        return reconnectCount.get();
+    }
+
+
+    /**
+     * The number of events waiting in the queues
+     */
+    public int queued() {
+        int queued = 0;
+        for (BlockingQueue<MinIOEvent> queue : queues) {
+            queued += queue.size();
+        }
+        return queued;
+    }
+
+
+    @Override
+    public void close() {
+        closed = true;
+        Thread thread = receiver;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        CloseableIterator<Result<NotificationRecords>> iterator = notifications;
+        if (iterator != null) {
+            try {
+                iterator.close();
+            } catch (IOException | RuntimeException e) {
+                // the receiver may be reading the stream,it stops on the next read or read timeout
+                logger.debug("MinIO notifications of bucket:{} close failed:{}", bucketName, e.getMessage());
+            }
+        }
+        workers.shutdownNow();
+        int dropped = queued();
+        if (dropped > 0) {
+            logger.warn("MinIO notifications of bucket:{} closed with {} events unhandled", bucketName, dropped);
+        }
+    }
+
+
+    private void receive() {
+        long delay = MIN_RECONNECT_DELAY;
+        boolean reconnected = false;
+        while (!closed) {
+            try (CloseableIterator<Result<NotificationRecords>> iterator = minioClient.listenBucketNotification(listenArgs)) {
+                notifications = iterator;
+                if (connectListener != null) {
+                    connectListener.run();
+                }
+                if (reconnected) {
+                    reconnectCount.incrementAndGet();
+                    if (reconnectListener != null) {
+                        reconnectListener.run();
+                    }
+                }
+                delay = MIN_RECONNECT_DELAY;
+                while (!closed && iterator.hasNext()) {
+                    for (Event event : iterator.next().get().events()) {
+                        enqueue(convert(event));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                if (closed) {
+                    break;
+                }
+                logger.warn("MinIO notifications of bucket:{} failed:{},reconnect after {}ms",
+                        bucketName, e.getMessage(), delay);
+            }
+            reconnected = true;
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            delay = Math.min(MAX_RECONNECT_DELAY, delay * 2);
+        }
+        notifications = null;
+    }
+
+
+    private void enqueue(MinIOEvent event) throws InterruptedException {
+        receivedCount.incrementAndGet();
+        String filename = StringUtils.defaultString(event.getFilename());
+        BlockingQueue<MinIOEvent> queue = queues.get((filename.hashCode() & Integer.MAX_VALUE) % queues.size());
+        if (!queue.offer(event)) {
+            long start = System.nanoTime();
+            queue.put(event);
+            blockedTime.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+
+    private void dispatch(BlockingQueue<MinIOEvent> queue) {
+        List<MinIOEvent> batch = new ArrayList<>(batchSize);
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            try {
+                handler.handle(batch);
+                handledCount.addAndGet(batch.size());
+            } catch (MinIOEventHandlingException e) {
+                int failed = Math.min(batch.size(), Math.max(0, e.getFailedCount()));
+                handledCount.addAndGet(batch.size() - failed);
+                failedCount.addAndGet(failed);
+                logger.error("MinIO handle {} of {} events of bucket:{} failed:{}",
+                        failed, batch.size(), bucketName, e.getMessage());
+            } catch (Exception e) {
+                failedCount.addAndGet(batch.size());
+                logger.error("MinIO handle {} events of bucket:{} failed:{}", batch.size(), bucketName, e.getMessage(), e);
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+
+    private MinIOEvent convert(Event event) throws IOException {
+        MinIOEvent minIOEvent = new MinIOEvent();
+        minIOEvent.setBucketName(event.bucketName() == null ? bucketName : event.bucketName());
+        minIOEvent.setFilename(event.objectName() == null ? null : URLDecoder.decode(event.objectName(), "utf-8"));
+        minIOEvent.setEventType(event.eventType() == null ? null : event.eventType().toString());
+        minIOEvent.setEventTime(event.eventTime());
+        minIOEvent.setSize(event.objectSize());
+        minIOEvent.setEtag(event.etag() == null ? null : event.etag().replace("\"", ""));
+        minIOEvent.setUserMetadata(event.userMetadata());
+        return minIOEvent;
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.github.minio.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MicrometerMinIOMetrics
+ *
+ * Record the operations to the meter registry:
+ * minio.operation the timer of operation,tagged by operation,bucket and outcome,the percentile histogram
+ * is published only if enabled
+ * minio.operation.bytes the bytes transferred,tagged by operation and bucket
+ * minio.operation.http.calls the http calls per operation,tagged by operation
+ * minio.operation.active the operations in flight,tagged by operation
+ *
+ * @author echils
+ */
+public class MicrometerMinIOMetrics implements MinIOMetrics {
+
+    private static final String OUTCOME_SUCCESS = "success";
+
+    private static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean percentileHistogram;
+
+    private final ConcurrentMap<String, AtomicInteger> activeOperations = new ConcurrentHashMap<>();
+
+    public MicrometerMinIOMetrics(MeterRegistry meterRegistry) {
+        this(meterRegistry, false);
+    }
+
+    public MicrometerMinIOMetrics(MeterRegistry meterRegistry, boolean percentileHistogram) {
+        this.meterRegistry = meterRegistry;
+        this.percentileHistogram = percentileHistogram;
+    }
+
+
+    @Override
+    public Sample start(String operation, String bucketName) {
+        AtomicInteger active = activeOperations.computeIfAbsent(operation, name ->
+                meterRegistry.gauge("minio.operation.active", Tags.of("operation", name), new AtomicInteger()));
+        active.incrementAndGet();
+        return new MicrometerSample(operation, bucketName == null ? "none" : bucketName, active);
+    }
+
+
+    private class MicrometerSample implements Sample {
+
+        private final String operation;
+
+        private final String bucketName;
+
+        private final AtomicInteger active;
+
+        private final long startTime = System.nanoTime();
+
+        private final AtomicInteger httpCalls = new AtomicInteger();
+
+        private volatile Counter bytesCounter;
+
+        private MicrometerSample(String operation, String bucketName, AtomicInteger active) {
+            this.operation = operation;
+            this.bucketName = bucketName;
+            this.active = active;
+        }
+
+        @Override
+        public void bytes(long bytes) {
+            Counter counter = bytesCounter;
+            if (counter == null) {
+                counter = Counter.builder("minio.operation.bytes")
+                        .baseUnit("bytes")
+                        .tags("operation", operation, "bucket", bucketName)
+                        .register(meterRegistry);
+                bytesCounter = counter;
+            }
+            counter.increment(bytes);
+        }
+
+        @Override
+        public void httpCall() {
+            httpCalls.incrementAndGet();
+        }
+
+        @Override
+        public void stop(Throwable error) {
+            active.decrementAndGet();
+            Timer.builder("minio.operation")
+                    .tags("operation", operation, "bucket", bucketName,
+                            "outcome", error == null ? OUTCOME_SUCCESS : OUTCOME_ERROR)
+                    .publishPercentileHistogram(percentileHistogram)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            DistributionSummary.builder("minio.operation.http.calls")
+                    .tags("operation", operation)
+                    .register(meterRegistry)
+                    .record(httpCalls.get());
+        }
+    }
+
+}
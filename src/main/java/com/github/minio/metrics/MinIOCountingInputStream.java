@@ -0,0 +1,50 @@
+package com.github.minio.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * MinIOCountingInputStream
+ *
+ * Record the bytes read from the stream to the sample
+ *
+ * @author echils
+ */
+public class MinIOCountingInputStream extends FilterInputStream {
+
+    private final MinIOMetrics.Sample sample;
+
+    public MinIOCountingInputStream(InputStream inputStream, MinIOMetrics.Sample sample) {
+        super(inputStream);
+        this.sample = sample;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int read = super.read();
+        if (read >= 0) {
+            sample.bytes(1);
+        }
+        return read;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0) {
+            sample.bytes(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        if (skipped > 0) {
+            sample.bytes(skipped);
+        }
+        return skipped;
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.github.minio.metrics;
+
+/**
+ * MinIOMetrics
+ *
+ * Record the operations of template,the default {@link #NOOP} records nothing
+ *
+ * @author echils
+ */
+public interface MinIOMetrics {
+
+    /**
+     * The metrics which record nothing
+     */
+    MinIOMetrics NOOP = (operation, bucketName) -> Sample.NOOP;
+
+    String UPLOAD = "upload";
+
+    String DOWNLOAD = "download";
+
+    String LIST = "list";
+
+    String DELETE = "delete";
+
+    String COPY = "copy";
+
+    String PRESIGN = "presign";
+
+
+    /**
+     * Start recording an operation
+     *
+     * @param operation  the name of operation
+     * @param bucketName the name of bucket
+     */
+    Sample start(String operation, String bucketName);
+
+
+    /**
+     * The recording of one operation
+     */
+    interface Sample {
+
+        /**
+         * The sample which records nothing
+         */
+        Sample NOOP = new Sample() {
+        };
+
+        /**
+         * Record the bytes transferred by the operation,it may be called after the operation stops
+         *
+         * @param bytes the number of bytes
+         */
+        default void bytes(long bytes) {
+        }
+
+        /**
+         * Record a http call made by the operation
+         */
+        default void httpCall() {
+        }
+
+        /**
+         * Stop recording the operation
+         *
+         * @param error the error of operation,null means success
+         */
+        default void stop(Throwable error) {
+        }
+    }
+
+}
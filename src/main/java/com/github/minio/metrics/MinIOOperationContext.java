@@ -0,0 +1,113 @@
+package com.github.minio.metrics;
+
+import okhttp3.Interceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * MinIOOperationContext
+ *
+ * Hold the sample of the operation running on current thread,so the http calls made for it are attributed
+ * to it,the worker tasks of an operation are wrapped to carry the sample to the worker threads and the
+ * request sent from another thread carries the sample as its tag
+ *
+ * @author echils
+ */
+public final class MinIOOperationContext {
+
+    private static final ThreadLocal<MinIOMetrics.Sample> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Count the http calls of the current operation
+     */
+    private static final Interceptor INTERCEPTOR = chain -> {
+        MinIOMetrics.Sample sample = CURRENT.get();
+        if (sample == null) {
+            sample = chain.request().tag(MinIOMetrics.Sample.class);
+        }
+        if (sample != null) {
+            sample.httpCall();
+        }
+        return chain.proceed(chain.request());
+    };
+
+    private MinIOOperationContext() {
+    }
+
+
+    /**
+     * The sample of current thread,null if no operation is recorded
+     */
+    public static MinIOMetrics.Sample current() {
+        return CURRENT.get();
+    }
+
+
+    /**
+     * Bind the sample to current thread and return the previous one
+     *
+     * @param sample the sample of operation
+     */
+    public static MinIOMetrics.Sample attach(MinIOMetrics.Sample sample) {
+        MinIOMetrics.Sample previous = CURRENT.get();
+        CURRENT.set(sample);
+        return previous;
+    }
+
+
+    /**
+     * Restore the previous sample of current thread
+     *
+     * @param previous the previous sample
+     */
+    public static void restore(MinIOMetrics.Sample previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+
+    /**
+     * Record the bytes to the sample of current thread if present
+     *
+     * @param bytes the number of bytes
+     */
+    public static void recordBytes(long bytes) {
+        MinIOMetrics.Sample sample = CURRENT.get();
+        if (sample != null) {
+            sample.bytes(bytes);
+        }
+    }
+
+
+    /**
+     * Carry the sample of current thread to the thread which runs the task
+     *
+     * @param task the task of operation
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        MinIOMetrics.Sample sample = CURRENT.get();
+        if (sample == null) {
+            return task;
+        }
+        return () -> {
+            MinIOMetrics.Sample previous = attach(sample);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+
+    /**
+     * The interceptor which counts the http calls of operations
+     */
+    public static Interceptor interceptor() {
+        return INTERCEPTOR;
+    }
+
+}
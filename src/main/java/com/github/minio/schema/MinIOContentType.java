@@ -1,17 +1,28 @@
 package com.github.minio.schema;
 
+import com.github.minio.cache.MinIOExpiringCache;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.activation.MimetypesFileTypeMap;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * MinIOContentType
  *
+ * The content type is looked up by the extension of filename in a fixed table first,the other extensions
+ * are probed once and the result is cached,the content of stream can be sniffed by its leading bytes
+ *
  * @author echils
  */
 public class MinIOContentType {
@@ -21,25 +32,255 @@ public class MinIOContentType {
      */
     private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
 
+    /**
+     * The number of leading bytes read by sniffing
+     */
+    private static final int SNIFF_LENGTH = 16;
+
+    /**
+     * The content types of common extensions
+     */
+    private static final Map<String, String> EXTENSION_TYPES;
+
+    /**
+     * The probed content types of the extensions absent from the table
+     */
+    private static final MinIOExpiringCache<String, String> PROBE_CACHE =
+            new MinIOExpiringCache<>(512, TimeUnit.HOURS.toMillis(1));
+
+    /**
+     * The parsed mime tables,parsing them is expensive so the map is shared
+     */
+    private static final MimetypesFileTypeMap MIME_TYPES_MAP = new MimetypesFileTypeMap();
+
+    private static final Signature[] SIGNATURES = {
+            new Signature(0, "image/png", 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A),
+            new Signature(0, "image/jpeg", 0xFF, 0xD8, 0xFF),
+            new Signature(0, "image/gif", 'G', 'I', 'F', '8'),
+            new Signature(0, "image/bmp", 'B', 'M'),
+            new Signature(0, "image/tiff", 'I', 'I', 0x2A, 0x00),
+            new Signature(0, "image/tiff", 'M', 'M', 0x00, 0x2A),
+            new Signature(8, "image/webp", 'W', 'E', 'B', 'P'),
+            new Signature(8, "audio/wav", 'W', 'A', 'V', 'E'),
+            new Signature(8, "video/x-msvideo", 'A', 'V', 'I', ' '),
+            new Signature(4, "video/mp4", 'f', 't', 'y', 'p'),
+            new Signature(0, "audio/mpeg", 'I', 'D', '3'),
+            new Signature(0, "audio/ogg", 'O', 'g', 'g', 'S'),
+            new Signature(0, "audio/flac", 'f', 'L', 'a', 'C'),
+            new Signature(0, "application/pdf", '%', 'P', 'D', 'F', '-'),
+            new Signature(0, "application/zip", 'P', 'K', 0x03, 0x04),
+            new Signature(0, "application/gzip", 0x1F, 0x8B),
+            new Signature(0, "application/x-7z-compressed", '7', 'z', 0xBC, 0xAF, 0x27, 0x1C),
+            new Signature(0, "application/x-rar-compressed", 'R', 'a', 'r', '!', 0x1A, 0x07),
+            new Signature(0, "application/x-bzip2", 'B', 'Z', 'h'),
+            new Signature(0, "application/wasm", 0x00, 'a', 's', 'm'),
+            new Signature(0, "font/woff", 'w', 'O', 'F', 'F'),
+            new Signature(0, "font/woff2", 'w', 'O', 'F', '2'),
+            new Signature(0, "application/xml", '<', '?', 'x', 'm', 'l'),
+            new Signature(0, "text/html", '<', '!', 'D', 'O', 'C', 'T', 'Y', 'P', 'E', ' ', 'h', 't', 'm', 'l'),
+            new Signature(0, "text/html", '<', 'h', 't', 'm', 'l')
+    };
+
+    static {
+        Map<String, String> types = new HashMap<>();
+        types.put("txt", "text/plain");
+        types.put("log", "text/plain");
+        types.put("csv", "text/csv");
+        types.put("tsv", "text/tab-separated-values");
+        types.put("htm", "text/html");
+        types.put("html", "text/html");
+        types.put("css", "text/css");
+        types.put("js", "application/javascript");
+        types.put("mjs", "application/javascript");
+        types.put("json", "application/json");
+        types.put("xml", "application/xml");
+        types.put("yml", "application/x-yaml");
+        types.put("yaml", "application/x-yaml");
+        types.put("md", "text/markdown");
+        types.put("properties", "text/plain");
+        types.put("png", "image/png");
+        types.put("jpg", "image/jpeg");
+        types.put("jpeg", "image/jpeg");
+        types.put("gif", "image/gif");
+        types.put("bmp", "image/bmp");
+        types.put("webp", "image/webp");
+        types.put("svg", "image/svg+xml");
+        types.put("ico", "image/x-icon");
+        types.put("tif", "image/tiff");
+        types.put("tiff", "image/tiff");
+        types.put("heic", "image/heic");
+        types.put("mp3", "audio/mpeg");
+        types.put("wav", "audio/wav");
+        types.put("ogg", "audio/ogg");
+        types.put("flac", "audio/flac");
+        types.put("aac", "audio/aac");
+        types.put("m4a", "audio/mp4");
+        types.put("mp4", "video/mp4");
+        types.put("m4v", "video/mp4");
+        types.put("mov", "video/quicktime");
+        types.put("avi", "video/x-msvideo");
+        types.put("mkv", "video/x-matroska");
+        types.put("webm", "video/webm");
+        types.put("flv", "video/x-flv");
+        types.put("pdf", "application/pdf");
+        types.put("doc", "application/msword");
+        types.put("docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document");
+        types.put("xls", "application/vnd.ms-excel");
+        types.put("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        types.put("ppt", "application/vnd.ms-powerpoint");
+        types.put("pptx", "application/vnd.openxmlformats-officedocument.presentationml.presentation");
+        types.put("odt", "application/vnd.oasis.opendocument.text");
+        types.put("ods", "application/vnd.oasis.opendocument.spreadsheet");
+        types.put("rtf", "application/rtf");
+        types.put("zip", "application/zip");
+        types.put("gz", "application/gzip");
+        types.put("tgz", "application/gzip");
+        types.put("tar", "application/x-tar");
+        types.put("bz2", "application/x-bzip2");
+        types.put("7z", "application/x-7z-compressed");
+        types.put("rar", "application/x-rar-compressed");
+        types.put("jar", "application/java-archive");
+        types.put("war", "application/java-archive");
+        types.put("apk", "application/vnd.android.package-archive");
+        types.put("wasm", "application/wasm");
+        types.put("woff", "font/woff");
+        types.put("woff2", "font/woff2");
+        types.put("ttf", "font/ttf");
+        types.put("otf", "font/otf");
+        types.put("bin", DEFAULT_CONTENT_TYPE);
+        types.put("exe", DEFAULT_CONTENT_TYPE);
+        EXTENSION_TYPES = Collections.unmodifiableMap(types);
+    }
+
     /**
      * Get content type of file
      *
      * @param file the upload file
      */
     public static String getContentType(File file) {
+        if (file == null) {
+            return null;
+        }
+        String extension = getExtension(file.getName());
+        if (extension.isEmpty()) {
+            return probeContentType(file);
+        }
+        String contentType = EXTENSION_TYPES.get(extension);
+        return contentType != null ? contentType : PROBE_CACHE.get(extension, key -> probeContentType(file));
+    }
+
+
+    /**
+     * Get content type by the extension of filename,the file is not required to exist
+     *
+     * @param filename the name of file
+     */
+    public static String getContentType(String filename) {
+        if (StringUtils.isBlank(filename)) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+        String extension = getExtension(filename);
+        String contentType = EXTENSION_TYPES.get(extension);
+        if (contentType != null) {
+            return contentType;
+        }
+        return extension.isEmpty() ? DEFAULT_CONTENT_TYPE
+                : PROBE_CACHE.get(extension, key -> probeContentType(new File(filename)));
+    }
+
+
+    /**
+     * Sniff the content type by the leading bytes of stream,the bytes are read with mark and reset so the
+     * stream is not consumed,return null if the stream does not support mark or no signature matches
+     *
+     * @param inputStream the stream supporting mark,such as {@link BufferedInputStream}
+     */
+    public static String sniffContentType(InputStream inputStream) throws IOException {
+        if (inputStream == null || !inputStream.markSupported()) {
+            return null;
+        }
+        byte[] header = new byte[SNIFF_LENGTH];
+        int length = 0;
+        inputStream.mark(SNIFF_LENGTH);
+        try {
+            while (length < header.length) {
+                int read = inputStream.read(header, length, header.length - length);
+                if (read < 0) {
+                    break;
+                }
+                length += read;
+            }
+        } finally {
+            inputStream.reset();
+        }
+        for (Signature signature : SIGNATURES) {
+            if (signature.matches(header, length)) {
+                return signature.contentType;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Whether the content type is the default binary type,which means nothing specific is known
+     *
+     * @param contentType the content type
+     */
+    public static boolean isDefault(String contentType) {
+        return StringUtils.isBlank(contentType) || DEFAULT_CONTENT_TYPE.equals(contentType);
+    }
+
+
+    private static String probeContentType(File file) {
         String contentType = null;
-        if (file != null) {
-            Path path = Paths.get(file.toURI());
-            try {
-                contentType = Files.probeContentType(path);
-            } catch (IOException ignored) {
+        Path path = Paths.get(file.toURI());
+        try {
+            contentType = Files.probeContentType(path);
+        } catch (IOException ignored) {
+        }
+        if (StringUtils.isBlank(contentType)) {
+            contentType = MIME_TYPES_MAP.getContentType(file);
+        }
+        return StringUtils.isBlank(contentType) ? DEFAULT_CONTENT_TYPE : contentType;
+    }
+
+
+    private static String getExtension(String filename) {
+        int separator = Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\'));
+        int dot = filename.lastIndexOf('.');
+        return dot > separator + 1 ? filename.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+
+    private static class Signature {
+
+        private final int offset;
+
+        private final String contentType;
+
+        private final byte[] magic;
+
+        private Signature(int offset, String contentType, int... magic) {
+            this.offset = offset;
+            this.contentType = contentType;
+            this.magic = new byte[magic.length];
+            for (int i = 0; i < magic.length; i++) {
+                this.magic[i] = (byte) magic[i];
+            }
+        }
+
+        private boolean matches(byte[] header, int length) {
+            if (offset + magic.length > length) {
+                return false;
             }
-            if (StringUtils.isBlank(contentType)) {
-                contentType = new MimetypesFileTypeMap().getContentType(file);
+            for (int i = 0; i < magic.length; i++) {
+                if (header[offset + i] != magic[i]) {
+                    return false;
+                }
             }
-            contentType = StringUtils.isBlank(contentType) ? DEFAULT_CONTENT_TYPE : contentType;
+            return true;
         }
-        return contentType;
     }
 
 }
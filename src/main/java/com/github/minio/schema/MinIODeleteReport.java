@@ -0,0 +1,45 @@
+package com.github.minio.schema;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MinIODeleteReport
+ *
+ * @author echils
+ */
+@Data
+public class MinIODeleteReport {
+
+    /**
+     * The name of files which are deleted
+     */
+    private List<String> deleted = new ArrayList<>();
+
+    /**
+     * The name of files which are failed to delete and the error code
+     */
+    private Map<String, String> failed = new LinkedHashMap<>();
+
+    /**
+     * Determine whether all files are deleted
+     */
+    public boolean isSuccessful() {
+        return failed.isEmpty();
+    }
+
+    /**
+     * Merge another report into this report
+     *
+     * @param report {@link MinIODeleteReport}
+     */
+    public synchronized void merge(MinIODeleteReport report) {
+        deleted.addAll(report.getDeleted());
+        failed.putAll(report.getFailed());
+    }
+
+}
@@ -1,11 +1,17 @@
 package com.github.minio.schema;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.net.URI;
 import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * MinIOFile
@@ -13,7 +19,8 @@ import java.time.ZonedDateTime;
  * @author echils
  */
 @Data
-@AllArgsConstructor
+@ToString(doNotUseGetters = true)
+@EqualsAndHashCode(doNotUseGetters = true)
 @NoArgsConstructor
 public class MinIOFile {
 
@@ -38,8 +45,79 @@ public class MinIOFile {
     private long size;
 
     /**
-     * The url of the file,if the bucket is shared the url will never expired,otherwise default 7 day valid time
+     * The url of the file,if the bucket is shared the url will never expired,otherwise default 7 day valid time.
+     * It is excluded from equals and hashCode,because the url of same file differs between signings
      */
-    private URI uri;
+    @EqualsAndHashCode.Exclude
+    private volatile URI uri;
+
+    /**
+     * Resolve the url when it is first read,so the files whose url is never used cost no signing
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient volatile Supplier<URI> uriResolver;
+
+    /**
+     * The etag of file
+     */
+    private String etag;
+
+    /**
+     * The content type of file,it is absent when the file comes from listing
+     */
+    private String contentType;
+
+    /**
+     * The user metadata of file,the key has no x-amz-meta- prefix
+     */
+    private Map<String, String> userMetadata;
+
+    public MinIOFile(String filename, String bucketName, ZonedDateTime lastModified, long size, URI uri) {
+        this.filename = filename;
+        this.bucketName = bucketName;
+        this.lastModified = lastModified;
+        this.size = size;
+        this.uri = uri;
+    }
+
+    /**
+     * Create the file whose url is resolved when it is first read
+     *
+     * @param filename     the name of file
+     * @param bucketName   the name of bucket
+     * @param lastModified the modified time of file
+     * @param size         the size of file
+     * @param uriResolver  the resolver of url,null means the file has no url
+     */
+    public static MinIOFile withUriResolver(String filename, String bucketName, ZonedDateTime lastModified,
+                                            long size, Supplier<URI> uriResolver) {
+        MinIOFile minIOFile = new MinIOFile(filename, bucketName, lastModified, size, null);
+        minIOFile.uriResolver = uriResolver;
+        return minIOFile;
+    }
+
+    /**
+     * The url of the file,it is resolved once by the first reader and the other threads wait for it.
+     * Resolving may sign the url or look up the region of bucket over the network,so serializing the file,
+     * such as with Jackson,pays that cost for every file and fails if the resolving fails
+     */
+    public URI getUri() {
+        URI current = uri;
+        if (current == null && uriResolver != null) {
+            synchronized (this) {
+                current = uri;
+                Supplier<URI> resolver = uriResolver;
+                if (current == null && resolver != null) {
+                    current = resolver.get();
+                    uri = current;
+                    uriResolver = null;
+                }
+            }
+        }
+        return current;
+    }
 
 }
@@ -0,0 +1,41 @@
+package com.github.minio.schema;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * MinIOIndexOptions
+ *
+ * @author echils
+ */
+@Data
+@Accessors(chain = true)
+public class MinIOIndexOptions {
+
+    /**
+     * Prefix of the file name,only the files of the prefix are indexed
+     */
+    private String prefix;
+
+    /**
+     * Keep the index fresh with the bucket notifications of MinIO server,the index is rescanned after connecting
+     */
+    private boolean listenNotifications;
+
+    /**
+     * The interval of listing the files after the last indexed name,it only discovers the files whose name is
+     * greater than the indexed ones such as the time ordered names,0 means disabled,the unit is millisecond
+     */
+    private long deltaScanInterval;
+
+    /**
+     * The interval of listing the whole prefix again,0 means disabled,the unit is millisecond
+     */
+    private long rescanInterval;
+
+    /**
+     * The interval of merging the received changes into the index,the unit is millisecond
+     */
+    private long flushInterval = 1000;
+
+}
@@ -0,0 +1,67 @@
+package com.github.minio.schema;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * MinIOListOptions
+ *
+ * @author echils
+ */
+@Data
+@Accessors(chain = true)
+public class MinIOListOptions {
+
+    /**
+     * Prefix of the file name
+     */
+    private String prefix;
+
+    /**
+     * List the files whose name is after this cursor
+     */
+    private String startAfter;
+
+    /**
+     * The max number of files fetched per listing page,the server default is used if not positive
+     */
+    private int maxKeys;
+
+    /**
+     * Filtering of files,it is applied before the url of file is generated
+     */
+    private Predicate<MinIOFile> predicate;
+
+    /**
+     * Generate the url of every file while listing,otherwise the url is generated when it is first read
+     */
+    private boolean eagerUrls;
+
+    /**
+     * The time of url expire
+     */
+    private int urlDuration = 7;
+
+    /**
+     * The time unit of url expire
+     */
+    private TimeUnit urlTimeUnit = TimeUnit.DAYS;
+
+
+    /**
+     * Generate the url of every file while listing with the expiry
+     *
+     * @param duration the time of expire
+     * @param timeUnit the time of unit
+     */
+    public MinIOListOptions withUrls(int duration, TimeUnit timeUnit) {
+        this.eagerUrls = true;
+        this.urlDuration = duration;
+        this.urlTimeUnit = timeUnit;
+        return this;
+    }
+
+}
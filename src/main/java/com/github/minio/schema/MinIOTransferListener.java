@@ -0,0 +1,34 @@
+package com.github.minio.schema;
+
+/**
+ * MinIOTransferListener
+ *
+ * Notified when every file of batch transfer is done,it is called by the transfer threads concurrently
+ *
+ * @author echils
+ */
+@FunctionalInterface
+public interface MinIOTransferListener {
+
+    /**
+     * Notify the progress of transfer
+     *
+     * @param filename the name of done file
+     * @param status   the status of done file
+     * @param files    the number of done files,including the transferred,skipped and failed ones
+     * @param bytes    the total size of transferred files,the unit is byte
+     */
+    void onProgress(String filename, Status status, long files, long bytes);
+
+
+    enum Status {
+
+        TRANSFERRED,
+
+        SKIPPED,
+
+        FAILED
+
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.github.minio.schema;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.File;
+import java.util.function.Predicate;
+
+/**
+ * MinIOTransferOptions
+ *
+ * @author echils
+ */
+@Data
+@Accessors(chain = true)
+public class MinIOTransferOptions {
+
+    /**
+     * The max number of files transferred concurrently,the transfer parallelism of properties is used if not positive
+     */
+    private int parallelism;
+
+    /**
+     * Skip the file which is unchanged,an upload compares the size and etag of object,a download
+     * compares the size and modified time of local file,a copy compares the size and etag of target object
+     */
+    private boolean skipUnchanged;
+
+    /**
+     * Filtering of local files,only the accepted files are transferred,it is not applied to the copy
+     */
+    private Predicate<File> filter;
+
+    /**
+     * Notified when every file is done,it is called by the transfer threads concurrently
+     */
+    private MinIOTransferListener listener;
+
+}
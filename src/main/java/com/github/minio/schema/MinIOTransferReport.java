@@ -0,0 +1,94 @@
+package com.github.minio.schema;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MinIOTransferReport
+ *
+ * @author echils
+ */
+@Data
+public class MinIOTransferReport {
+
+    /**
+     * The name of files which are transferred
+     */
+    private List<String> transferred = new ArrayList<>();
+
+    /**
+     * The name of files which are skipped because they are unchanged
+     */
+    private List<String> skipped = new ArrayList<>();
+
+    /**
+     * The name of files which are failed to transfer and the error
+     */
+    private Map<String, String> failed = new LinkedHashMap<>();
+
+    /**
+     * The total size of transferred files,the unit is byte
+     */
+    private long bytes;
+
+    /**
+     * The time of transfer,the unit is millisecond
+     */
+    private long elapsed;
+
+    /**
+     * Determine whether all files are transferred or skipped
+     */
+    public boolean isSuccessful() {
+        return failed.isEmpty();
+    }
+
+    /**
+     * The transferred bytes per second
+     */
+    public double getBytesPerSecond() {
+        return elapsed <= 0 ? 0 : bytes * 1000D / elapsed;
+    }
+
+    /**
+     * The transferred files per second
+     */
+    public double getFilesPerSecond() {
+        return elapsed <= 0 ? 0 : transferred.size() * 1000D / elapsed;
+    }
+
+    /**
+     * Record a transferred file
+     *
+     * @param filename the name of file
+     * @param size     the size of file
+     */
+    public synchronized void addTransferred(String filename, long size) {
+        transferred.add(filename);
+        bytes += size;
+    }
+
+    /**
+     * Record a skipped file
+     *
+     * @param filename the name of file
+     */
+    public synchronized void addSkipped(String filename) {
+        skipped.add(filename);
+    }
+
+    /**
+     * Record a failed file
+     *
+     * @param filename the name of file
+     * @param error    the error of transfer
+     */
+    public synchronized void addFailed(String filename, String error) {
+        failed.put(filename, error);
+    }
+
+}
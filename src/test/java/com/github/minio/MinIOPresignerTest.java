@@ -0,0 +1,128 @@
+package com.github.minio;
+
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.http.Method;
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * MinIOPresignerTest
+ *
+ * The urls presigned locally must equal the urls presigned by the client of SDK at the same time
+ *
+ * @author echils
+ */
+class MinIOPresignerTest {
+
+    private static final String ACCESS_KEY = "minioadmin";
+
+    private static final String SECRET_KEY = "minioadmin/secret+key";
+
+    private static final String REGION = "us-east-1";
+
+    private static final String BUCKET_NAME = "bucket";
+
+    private static final int EXPIRY = 3600;
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private static final List<String> OBJECT_NAMES = Arrays.asList(
+            "file.txt",
+            "dir/sub/file.txt",
+            "with space.txt",
+            "a+b.txt",
+            "100%.txt",
+            "中文/文件.txt",
+            "émoji-😀.png",
+            "special-~_.!*'()&$@=;:,?#[].txt");
+
+    @Test
+    void presignWithNonDefaultPort() throws Exception {
+        assertSameAsClient("http://localhost:9000");
+    }
+
+    @Test
+    void presignWithDefaultHttpPort() throws Exception {
+        assertSameAsClient("http://localhost");
+    }
+
+    @Test
+    void presignWithDefaultHttpsPort() throws Exception {
+        assertSameAsClient("https://minio.example.com");
+    }
+
+    @Test
+    void presignWithNonDefaultHttpsPort() throws Exception {
+        assertSameAsClient("https://minio.example.com:9443");
+    }
+
+    @Test
+    void presignBatchWithSharedTimestamp() throws Exception {
+        String endpoint = "http://localhost:9000";
+        MinioClient client = client(endpoint);
+        String first = presignByClient(client, OBJECT_NAMES.get(0));
+        MinIOPresigner presigner = presigner(endpoint, first);
+        List<URI> urls = presigner.presign(BUCKET_NAME, OBJECT_NAMES, EXPIRY, TimeUnit.SECONDS);
+        for (int i = 0; i < OBJECT_NAMES.size(); i++) {
+            String objectName = OBJECT_NAMES.get(i);
+            String expected = presignByClient(client, objectName);
+            // the clock of client may move to the next second,then compare with a presigner of that second
+            URI actual = sameSecond(first, expected) ? urls.get(i)
+                    : presigner(endpoint, expected).presign(BUCKET_NAME, objectName, EXPIRY, TimeUnit.SECONDS);
+            assertEquals(expected, actual.toString(), objectName);
+        }
+    }
+
+
+    private static void assertSameAsClient(String endpoint) throws Exception {
+        MinioClient client = client(endpoint);
+        for (String objectName : OBJECT_NAMES) {
+            String expected = presignByClient(client, objectName);
+            URI actual = presigner(endpoint, expected).presign(BUCKET_NAME, objectName, EXPIRY, TimeUnit.SECONDS);
+            assertEquals(expected, actual.toString(), objectName);
+        }
+    }
+
+
+    private static MinioClient client(String endpoint) {
+        return MinioClient.builder().endpoint(endpoint).credentials(ACCESS_KEY, SECRET_KEY).region(REGION).build();
+    }
+
+
+    private static String presignByClient(MinioClient client, String objectName) throws Exception {
+        return client.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                .method(Method.GET).bucket(BUCKET_NAME).object(objectName).expiry(EXPIRY).build());
+    }
+
+
+    /**
+     * The presigner whose clock is the time the url was presigned by the client
+     */
+    private static MinIOPresigner presigner(String endpoint, String presignedUrl) {
+        long time = signTime(presignedUrl);
+        return new MinIOPresigner(HttpUrl.get(endpoint), ACCESS_KEY, SECRET_KEY, REGION, null, () -> time);
+    }
+
+
+    private static long signTime(String presignedUrl) {
+        String date = HttpUrl.get(presignedUrl).queryParameter("X-Amz-Date");
+        return LocalDateTime.parse(date, TIME_FORMATTER).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+
+    private static boolean sameSecond(String presignedUrl, String otherUrl) {
+        return signTime(presignedUrl) == signTime(otherUrl);
+    }
+
+}